@@ -0,0 +1,52 @@
+package com.example.authservice.config;
+
+import com.example.authservice.dto.TokenClaims;
+import com.example.authservice.service.JwtService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Authenticates requests that carry a token this service issued. Only the operational endpoints
+ * need it; everything under /auth stays open.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            TokenClaims claims = jwtService.parseClaims(authHeader.substring(7)).orElse(null);
+            if (claims != null) {
+                List<GrantedAuthority> authorities = new ArrayList<>();
+                if (claims.role() != null && !claims.role().isEmpty()) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + claims.role()));
+                }
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(claims.email(), null, authorities));
+                log.debug("Auth success for {} with role {}", claims.email(), claims.role());
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.authservice.controller;
 
+import com.example.authservice.dto.BatchProvisionRequest;
+import com.example.authservice.dto.BatchValidateRequest;
 import com.example.authservice.dto.LoginRequest;
 import com.example.authservice.dto.LoginResponse;
 import com.example.authservice.dto.ProvisionRequest;
 import com.example.authservice.dto.ProvisionResponse;
+import com.example.authservice.dto.TokenClaims;
+import com.example.authservice.dto.TokenValidationResult;
 import com.example.authservice.dto.UpdateUserRequest;
 import com.example.authservice.model.User;
 import com.example.authservice.model.UserRole;
@@ -11,8 +15,9 @@ import com.example.authservice.repository.UserRepository;
 import com.example.authservice.event.UserProvisionedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import com.example.authservice.service.AuthService;
+import com.example.authservice.service.PasswordHasher;
+import com.example.authservice.service.ProvisioningService;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import static com.example.authservice.config.RabbitMQConfig.USER_PROVISIONED_EXCHANGE;
 import static com.example.authservice.config.RabbitMQConfig.USER_PROVISIONED_ROUTING_KEY;
@@ -35,11 +40,14 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private ProvisioningService provisioningService;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private RabbitTemplate rabbitTemplate;
@@ -50,10 +58,10 @@ public class AuthController {
         log.info("Login request received for email {}", loginRequest.getEmail());
         Optional<String> token = authService.login(loginRequest.getEmail(), loginRequest.getPassword());
         
-        if (token.isPresent()) {
-            String role = authService.getRoleFromToken(token.get());
-            java.util.List<String> roles = authService.getJwtService().getRolesFromToken(token.get());
-            LoginResponse response = new LoginResponse(token.get(), loginRequest.getEmail(), role, roles);
+        Optional<TokenClaims> claims = token.flatMap(authService::parseClaims);
+        if (claims.isPresent()) {
+            String role = claims.get().role();
+            LoginResponse response = new LoginResponse(token.get(), loginRequest.getEmail(), role, claims.get().roles());
             log.info("Login success for email {} as {}", loginRequest.getEmail(), role);
             return ResponseEntity.ok(response);
         }
@@ -66,18 +74,38 @@ public class AuthController {
     @Operation(summary = "Validate JWT token and return claims")
     public ResponseEntity<?> validateToken(@RequestParam String token) {
         log.info("Token validation requested");
-        if (authService.validateToken(token)) {
-            String email = authService.getEmailFromToken(token);
-            String role = authService.getRoleFromToken(token);
-            java.util.List<String> roles = authService.getJwtService().getRolesFromToken(token);
-            log.info("Token valid for {} with role {}", email, role);
-            return ResponseEntity.ok(new LoginResponse(token, email, role, roles));
+        Optional<TokenClaims> claims = authService.parseClaims(token);
+        if (claims.isPresent()) {
+            TokenClaims c = claims.get();
+            log.info("Token valid for {} with role {}", c.email(), c.role());
+            return ResponseEntity.ok(new LoginResponse(token, c.email(), c.role(), c.roles()));
         }
         
         log.warn("Token validation failed");
         return ResponseEntity.badRequest().body("Invalid token");
     }
 
+    @PostMapping("/validate/batch")
+    @Operation(summary = "Validate many JWT tokens and return claims for each, in request order")
+    public ResponseEntity<java.util.List<TokenValidationResult>> validateTokens(@Valid @RequestBody BatchValidateRequest request) {
+        log.debug("Batch token validation requested for {} tokens", request.getTokens().size());
+        java.util.Map<String, TokenValidationResult> seen = new java.util.HashMap<>();
+        java.util.List<TokenValidationResult> results = new java.util.ArrayList<>(request.getTokens().size());
+        for (String token : request.getTokens()) {
+            results.add(seen.computeIfAbsent(token, t -> authService.parseClaims(t)
+                    .map(TokenValidationResult::of)
+                    .orElseGet(TokenValidationResult::invalid)));
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/jwks")
+    @Operation(summary = "Public keys for verifying issued tokens")
+    public ResponseEntity<java.util.Map<String, Object>> jwks() {
+        log.debug("JWKS requested");
+        return ResponseEntity.ok(authService.getJwtService().getJwks());
+    }
+
     @PostMapping("/provision")
     @Operation(summary = "Provision a user and emit event")
     public ResponseEntity<?> provision(@Valid @RequestBody ProvisionRequest request) {
@@ -95,7 +123,7 @@ public class AuthController {
                 : java.util.UUID.randomUUID().toString().substring(0, 10);
         User u = new User();
         u.setEmail(request.getEmail());
-        u.setPassword(passwordEncoder.encode(rawPassword));
+        u.setPassword(passwordHasher.encode(rawPassword));
         java.util.List<UserRole> roles = new java.util.ArrayList<>();
         for (String r : request.getRoles()) {
             roles.add(UserRole.valueOf(r));
@@ -109,7 +137,7 @@ public class AuthController {
         boolean suppress = request.getSuppressEmail() != null && request.getSuppressEmail();
         if (!suppress) {
             rabbitTemplate.convertAndSend(USER_PROVISIONED_EXCHANGE, USER_PROVISIONED_ROUTING_KEY, event,
-                    m -> { m.getMessageProperties().setHeader("__TypeId__", "com.example.authservice.event.UserProvisionedEvent"); return m; });
+                    ProvisioningService.userProvisionedHeaders(u.getId()));
             log.info("User provisioned and event sent for {}", request.getEmail());
         } else {
             log.info("User provisioned without sending event for {}", request.getEmail());
@@ -117,6 +145,21 @@ public class AuthController {
         return ResponseEntity.ok(new ProvisionResponse(request.getEmail(), rawPassword, true));
     }
 
+    @PostMapping("/provision/batch")
+    @Operation(summary = "Provision many users in one call; results are returned in request order")
+    public ResponseEntity<java.util.List<ProvisionResponse>> provisionBatch(@Valid @RequestBody BatchProvisionRequest request) {
+        log.info("Batch provision request for {} users", request.getUsers().size());
+        return ResponseEntity.ok(provisioningService.provisionAll(request.getUsers()));
+    }
+
+    @ExceptionHandler(PasswordHasher.SaturatedException.class)
+    public ResponseEntity<?> hashingSaturated(PasswordHasher.SaturatedException e) {
+        log.warn("Shedding request: {}", e.getMessage());
+        return ResponseEntity.status(org.springframework.http.HttpStatus.TOO_MANY_REQUESTS)
+                .header(org.springframework.http.HttpHeaders.RETRY_AFTER, "1")
+                .body(java.util.Map.of("error", e.getMessage()));
+    }
+
     @PostMapping("/update-user")
     @Operation(summary = "Update user email or roles in auth store")
     public ResponseEntity<?> updateUser(@Valid @RequestBody UpdateUserRequest request) {
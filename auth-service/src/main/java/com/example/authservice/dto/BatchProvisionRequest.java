@@ -0,0 +1,16 @@
+package com.example.authservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BatchProvisionRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid ProvisionRequest> users;
+
+    public List<ProvisionRequest> getUsers() { return users; }
+    public void setUsers(List<ProvisionRequest> users) { this.users = users; }
+}
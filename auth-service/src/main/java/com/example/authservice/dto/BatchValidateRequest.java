@@ -0,0 +1,15 @@
+package com.example.authservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BatchValidateRequest {
+
+    @NotEmpty
+    @Size(max = 500)
+    private List<String> tokens;
+
+    public List<String> getTokens() { return tokens; }
+    public void setTokens(List<String> tokens) { this.tokens = tokens; }
+}
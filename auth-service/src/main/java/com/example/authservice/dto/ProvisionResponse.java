@@ -1,9 +1,13 @@
 package com.example.authservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class ProvisionResponse {
     private String email;
     private String password;
     private boolean created;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
 
     public ProvisionResponse(String email, String password, boolean created) {
         this.email = email;
@@ -11,6 +15,12 @@ public class ProvisionResponse {
         this.created = created;
     }
 
+    public static ProvisionResponse rejected(String email, String error) {
+        ProvisionResponse response = new ProvisionResponse(email, null, false);
+        response.error = error;
+        return response;
+    }
+
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
 
@@ -19,6 +29,7 @@ public class ProvisionResponse {
 
     public boolean isCreated() { return created; }
     public void setCreated(boolean created) { this.created = created; }
-}
-
 
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,11 @@
+package com.example.authservice.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record TokenClaims(String email, String role, List<String> roles, Instant issuedAt, Instant expiresAt) {
+
+    public TokenClaims {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.authservice.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class TokenValidationResult {
+    private boolean valid;
+    private String email;
+    private String role;
+    private List<String> roles;
+    private Instant expiresAt;
+
+    public static TokenValidationResult invalid() {
+        return new TokenValidationResult();
+    }
+
+    public static TokenValidationResult of(TokenClaims claims) {
+        TokenValidationResult result = new TokenValidationResult();
+        result.valid = true;
+        result.email = claims.email();
+        result.role = claims.role();
+        result.roles = claims.roles();
+        result.expiresAt = claims.expiresAt();
+        return result;
+    }
+
+    public boolean isValid() { return valid; }
+    public void setValid(boolean valid) { this.valid = valid; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+
+    public List<String> getRoles() { return roles; }
+    public void setRoles(List<String> roles) { this.roles = roles; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -1,12 +1,12 @@
 package com.example.authservice.service;
 
+import com.example.authservice.dto.TokenClaims;
 import com.example.authservice.model.User;
 import com.example.authservice.model.UserRole;
 import com.example.authservice.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -20,7 +20,7 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtService jwtService;
@@ -29,7 +29,11 @@ public class AuthService {
         log.info("Login attempt {}", email);
         Optional<User> user = userRepository.findByEmail(email);
         
-        if (user.isPresent() && passwordEncoder.matches(password, user.get().getPassword())) {
+        if (user.isPresent() && passwordHasher.matches(password, user.get().getPassword())) {
+            if (passwordHasher.needsRehash(user.get().getPassword())) {
+                user.get().setPassword(passwordHasher.encode(password));
+                log.info("Password rehashed with the current cost for {}", email);
+            }
             user.get().setLastLoginAt(LocalDateTime.now());
             userRepository.save(user.get());
             UserRole primary = choosePrimaryRole(user.get().getRoles());
@@ -41,22 +45,16 @@ public class AuthService {
         return Optional.empty();
     }
 
-    public boolean validateToken(String token) {
-        boolean valid = jwtService.validateToken(token);
-        if (valid) {
+    public Optional<TokenClaims> parseClaims(String token) {
+        Optional<TokenClaims> claims = jwtService.parseClaims(token);
+        if (claims.isPresent()) {
             log.debug("Token is valid");
         } else {
             log.warn("Token is invalid");
         }
-        return valid;
+        return claims;
     }
 
-    public String getEmailFromToken(String token) {
-        return jwtService.getEmailFromToken(token);
-    }
-
-    public String getRoleFromToken(String token) { return jwtService.getRoleFromToken(token); }
-
     public JwtService getJwtService() { return jwtService; }
 
     private UserRole choosePrimaryRole(java.util.List<UserRole> roles) {
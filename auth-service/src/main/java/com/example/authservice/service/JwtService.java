@@ -1,78 +1,143 @@
 package com.example.authservice.service;
 
+import com.example.authservice.dto.TokenClaims;
 import com.example.authservice.model.UserRole;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.security.Key;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class JwtService {
 
     private static final Logger log = LoggerFactory.getLogger(JwtService.class);
 
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    
+    private RSAPrivateCrtKey privateKey;
+    private RSAPublicKey publicKey;
+    private String keyId;
+    private JwtParser parser;
+
     @Value("${jwt.expiration:86400000}")
     private Long expiration;
 
+    @Value("${jwt.private-key:}")
+    private String configuredPrivateKey;
+
+    @Value("${jwt.key-file:jwt-signing.key}")
+    private String keyFile;
+
+    @PostConstruct
+    public void initKeys() throws GeneralSecurityException, IOException {
+        byte[] encoded;
+        if (configuredPrivateKey != null && !configuredPrivateKey.isBlank()) {
+            encoded = Base64.getMimeDecoder().decode(configuredPrivateKey);
+            log.info("Using configured JWT signing key");
+        } else {
+            Path path = Paths.get(keyFile);
+            if (Files.exists(path)) {
+                encoded = Files.readAllBytes(path);
+                log.info("Loaded JWT signing key from {}", path.toAbsolutePath());
+            } else {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                encoded = generator.generateKeyPair().getPrivate().getEncoded();
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) Files.createDirectories(parent);
+                writeOwnerOnly(path, encoded);
+                log.info("Generated new JWT signing key at {}", path.toAbsolutePath());
+            }
+        }
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        privateKey = (RSAPrivateCrtKey) keyFactory.generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        publicKey = (RSAPublicKey) keyFactory.generatePublic(
+                new RSAPublicKeySpec(privateKey.getModulus(), privateKey.getPublicExponent()));
+        byte[] thumbprint = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+        keyId = Base64.getUrlEncoder().withoutPadding().encodeToString(thumbprint).substring(0, 16);
+        parser = Jwts.parserBuilder().setSigningKey(publicKey).build();
+    }
+
+    /** The key file is created readable by its owner only wherever the filesystem has POSIX permissions. */
+    private static void writeOwnerOnly(Path path, byte[] content) throws IOException {
+        if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(path);
+        }
+        Files.write(path, content);
+    }
+
     public String generateToken(String email, UserRole role, java.util.List<UserRole> roles) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
         log.debug("Generating token for {} with role {}", email, role.name());
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyId)
                 .setSubject(email)
                 .claim("role", role.name())
                 .claim("roles", roles.stream().map(UserRole::name).toList())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(key)
+                .signWith(privateKey, SignatureAlgorithm.RS256)
                 .compact();
     }
 
-    public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-
-    public String getRoleFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("role", String.class);
-    }
-
-    public java.util.List<String> getRolesFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("roles", java.util.List.class);
-    }
-
-    public boolean validateToken(String token) {
+    public Optional<TokenClaims> parseClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            List<?> rawRoles = claims.get("roles", List.class);
+            List<String> roles = rawRoles != null ? rawRoles.stream().map(String::valueOf).toList() : List.of();
             log.debug("JWT parsed successfully");
-            return true;
+            return Optional.of(new TokenClaims(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    roles,
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null));
         } catch (JwtException | IllegalArgumentException e) {
             log.warn("JWT validation failed: {}", e.getMessage());
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    public Map<String, Object> getJwks() {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("kid", keyId);
+        jwk.put("use", "sig");
+        jwk.put("alg", SignatureAlgorithm.RS256.getValue());
+        jwk.put("n", base64Url(publicKey.getModulus()));
+        jwk.put("e", base64Url(publicKey.getPublicExponent()));
+        return Map.of("keys", List.of(jwk));
+    }
+
+    private String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = java.util.Arrays.copyOfRange(bytes, 1, bytes.length);
         }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 }
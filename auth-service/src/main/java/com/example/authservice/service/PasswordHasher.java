@@ -0,0 +1,146 @@
+package com.example.authservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs every BCrypt hash and check on a small dedicated pool so a burst of logins or
+ * provisioning cannot tie up the request threads that token validation needs. The pool has a
+ * bounded queue; when it is full the work is refused with {@link SaturatedException}, which
+ * the API answers with 429.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    /** Thrown when the hashing pool and its queue are full. */
+    public static class SaturatedException extends RuntimeException {
+        public SaturatedException() {
+            super("Password hashing is saturated, retry later");
+        }
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int bcryptCost;
+    private final Counter rejected;
+    private final Timer hashTimer;
+    private final Timer matchTimer;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${password.bcrypt.cost:10}") int bcryptCost,
+                          @Value("${password.hashing.threads:0}") int threads,
+                          @Value("${password.hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.bcryptCost = bcryptCost;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "auth.password.hashing");
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Hash or match requests refused because the pool was saturated")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.password.hashing.duration").tag("op", "encode").register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.password.hashing.duration").tag("op", "matches").register(meterRegistry);
+        log.info("Password hashing pool with {} threads and queue of {}", this.threads, queueCapacity);
+    }
+
+    public String encode(String rawPassword) {
+        return await(encodeAsync(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(submit(() -> matchTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword))));
+    }
+
+    /**
+     * True when the stored hash was made with a different cost than the configured one, lower or
+     * higher. The encoder's own upgradeEncoding only reports a lower cost, so lowering
+     * password.bcrypt.cost would never take effect for existing users.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = encodedPassword != null ? BCRYPT_COST.matcher(encodedPassword) : null;
+        return matcher != null && matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptCost;
+    }
+
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        return submit(() -> hashTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Hashes a batch, keeping at most one task per pool thread in flight so a single large
+     * batch cannot fill the queue and shed everyone else's logins.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(rawPasswords.size());
+        Deque<CompletableFuture<String>> inFlight = new ArrayDeque<>();
+        for (String raw : rawPasswords) {
+            if (inFlight.size() >= threads) {
+                await(inFlight.removeFirst());
+            }
+            CompletableFuture<String> future = encodeAsync(raw);
+            futures.add(future);
+            inFlight.addLast(future);
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        for (CompletableFuture<String> future : futures) {
+            hashes.add(await(future));
+        }
+        return hashes;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new SaturatedException();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.authservice.service;
+
+import com.example.authservice.dto.ProvisionRequest;
+import com.example.authservice.dto.ProvisionResponse;
+import com.example.authservice.event.UserProvisionedEvent;
+import com.example.authservice.model.User;
+import com.example.authservice.model.UserRole;
+import com.example.authservice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.example.authservice.config.RabbitMQConfig.USER_PROVISIONED_EXCHANGE;
+import static com.example.authservice.config.RabbitMQConfig.USER_PROVISIONED_ROUTING_KEY;
+
+/**
+ * Provisions many users at once: existing emails are found with one IN query, passwords are
+ * hashed in parallel on the {@link PasswordHasher} pool, users are inserted in JDBC batches and the
+ * {@link UserProvisionedEvent}s go out on one channel and are confirmed together. If the
+ * confirms do not arrive the inserts roll back, so the caller can simply retry the batch.
+ * Only the inserts and the confirmed publish run in a transaction; hashing a large batch takes
+ * seconds and must not hold a database connection meanwhile.
+ */
+@Service
+public class ProvisioningService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProvisioningService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${provisioning.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    /**
+     * Results are in request order; users that already exist or are rejected are not created. An
+     * email taken by a concurrent request between the check and the insert fails the whole batch
+     * on the unique key, and a retry then reports it as existing.
+     */
+    public List<ProvisionResponse> provisionAll(List<ProvisionRequest> requests) {
+        long start = System.currentTimeMillis();
+        List<String> emails = requests.stream().map(ProvisionRequest::getEmail).toList();
+        Set<String> taken = new HashSet<>(userRepository.findExistingEmails(emails));
+
+        ProvisionResponse[] results = new ProvisionResponse[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        List<List<UserRole>> acceptedRoles = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ProvisionRequest request = requests.get(i);
+            String email = request.getEmail();
+            if ("admin".equalsIgnoreCase(email)) {
+                results[i] = ProvisionResponse.rejected(email, "Cannot provision admin via API");
+                continue;
+            }
+            if (taken.contains(email) || !seen.add(email.toLowerCase(Locale.ROOT))) {
+                results[i] = new ProvisionResponse(email, null, false);
+                continue;
+            }
+            try {
+                List<UserRole> roles = new ArrayList<>();
+                for (String r : request.getRoles()) roles.add(UserRole.valueOf(r));
+                acceptedRoles.add(roles);
+                accepted.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = ProvisionResponse.rejected(email, "Unknown role in " + request.getRoles());
+            }
+        }
+
+        List<String> rawPasswords = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            String password = requests.get(i).getPassword();
+            rawPasswords.add(password != null && !password.isBlank() ? password : UUID.randomUUID().toString().substring(0, 10));
+        }
+        List<String> hashes = passwordHasher.encodeAll(rawPasswords);
+
+        List<User> users = new ArrayList<>(accepted.size());
+        List<UserProvisionedEvent> events = new ArrayList<>();
+        List<User> eventUsers = new ArrayList<>();
+        for (int k = 0; k < accepted.size(); k++) {
+            ProvisionRequest request = requests.get(accepted.get(k));
+            User u = new User();
+            u.setEmail(request.getEmail());
+            u.setPassword(hashes.get(k));
+            u.setRoles(acceptedRoles.get(k));
+            users.add(u);
+            results[accepted.get(k)] = new ProvisionResponse(request.getEmail(), rawPasswords.get(k), true);
+            if (request.getSuppressEmail() == null || !request.getSuppressEmail()) {
+                UserProvisionedEvent event = new UserProvisionedEvent();
+                event.setEmail(request.getEmail());
+                event.setFullName(null);
+                event.setPassword(rawPasswords.get(k));
+                events.add(event);
+                eventUsers.add(u);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.saveAll(users);
+            userRepository.flush();
+            publishConfirmed(events, eventUsers);
+        });
+        log.info("Provisioned {} of {} users ({} events) in {} ms",
+                users.size(), requests.size(), events.size(), System.currentTimeMillis() - start);
+        return List.of(results);
+    }
+
+    /**
+     * The message id is derived from the user id, so the event for a user always carries the same
+     * id and notification-service can tell a redelivery or a republish from a new account.
+     */
+    public static MessagePostProcessor userProvisionedHeaders(Long userId) {
+        String messageId = UUID.nameUUIDFromBytes(("user-provisioned:" + userId).getBytes(StandardCharsets.UTF_8)).toString();
+        return m -> {
+            m.getMessageProperties().setHeader("__TypeId__", "com.example.authservice.event.UserProvisionedEvent");
+            m.getMessageProperties().setMessageId(messageId);
+            m.getMessageProperties().setTimestamp(new Date());
+            return m;
+        };
+    }
+
+    private void publishConfirmed(List<UserProvisionedEvent> events, List<User> users) {
+        if (events.isEmpty()) {
+            return;
+        }
+        rabbitTemplate.invoke(ops -> {
+            for (int i = 0; i < events.size(); i++) {
+                ops.convertAndSend(USER_PROVISIONED_EXCHANGE, USER_PROVISIONED_ROUTING_KEY, events.get(i),
+                        userProvisionedHeaders(users.get(i).getId()));
+            }
+            ops.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.authservice.service;
+
+import com.example.authservice.dto.TokenClaims;
+import com.example.authservice.model.UserRole;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares what {@code /auth/validate} costs per token: the old path, which built a parser and
+ * verified the signature once to validate and once more for each of email, role and roles,
+ * against {@link JwtService#parseClaims}, which verifies once with a shared parser.
+ *
+ * <p>Not run by {@code mvn test}. Run it with
+ * {@code mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt} followed by
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.authservice.service.JwtParseBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private JwtService jwtService;
+    private PublicKey publicKey;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        publicKey = keyPair.getPublic();
+
+        jwtService = new JwtService();
+        set("configuredPrivateKey", Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        set("expiration", 3_600_000L);
+        jwtService.initKeys();
+        token = jwtService.generateToken("bench@example.com", UserRole.HR, List.of(UserRole.HR, UserRole.EMPLOYEE));
+    }
+
+    @Benchmark
+    public Object parsePerClaim() {
+        Jwts.parserBuilder().setSigningKey(publicKey).build().parseClaimsJws(token);
+        String email = Jwts.parserBuilder().setSigningKey(publicKey).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        String role = Jwts.parserBuilder().setSigningKey(publicKey).build()
+                .parseClaimsJws(token).getBody().get("role", String.class);
+        List<?> roles = Jwts.parserBuilder().setSigningKey(publicKey).build()
+                .parseClaimsJws(token).getBody().get("roles", List.class);
+        return new Object[] {email, role, roles};
+    }
+
+    @Benchmark
+    public TokenClaims parseOnce() {
+        return jwtService.parseClaims(token).orElseThrow();
+    }
+
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtService, value);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtParseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
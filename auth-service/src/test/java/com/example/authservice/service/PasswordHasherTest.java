@@ -0,0 +1,29 @@
+package com.example.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(6), new SimpleMeterRegistry(), 6, 1, 4);
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void rehashesWhenTheStoredCostIsLowerOrHigher() {
+        assertThat(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(hasher.needsRehash(new BCryptPasswordEncoder(8).encode("secret"))).isTrue();
+    }
+
+    @Test
+    void keepsAHashWithTheConfiguredCost() {
+        assertThat(hasher.needsRehash(hasher.encode("secret"))).isFalse();
+    }
+}
@@ -42,7 +42,9 @@ function OrganizationChart({ onPersonClick, onDepartmentClick }: { onPersonClick
 
   const fetchOrganizationData = useCallback(async () => {
     try {
+      // no-cache makes the browser revalidate with If-None-Match; an unchanged chart comes back as a 304.
       const response = await fetch('http://localhost:8081/api/departments/organization-structure', {
+        cache: 'no-cache',
         headers: {
           'Authorization': `Bearer ${token}`
         }
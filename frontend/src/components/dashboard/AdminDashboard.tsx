@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useAuth } from '../../context/AuthContext';
+import { fetchAllByCursor } from '../../utils/paging';
 import DashCard from './DashCard';
 import ActionButton from './ActionButton';
 import type { Task, Meeting } from '../../types/models';
@@ -54,16 +55,14 @@ export default function AdminDashboard({
     const loadDashboardData = async () => {
       setLoading(true);
       try {
-        const [peopleRes, deptRes, tasksRes, meetingsRes] = await Promise.all([
+        const [peopleRes, deptRes, tasksData, meetingsRes] = await Promise.all([
           fetch('http://localhost:8081/api/people', {
             headers: { Authorization: `Bearer ${token}` }
           }),
           fetch('http://localhost:8081/api/departments', {
             headers: { Authorization: `Bearer ${token}` }
           }),
-          fetch('http://localhost:8081/api/tasks', {
-            headers: { Authorization: `Bearer ${token}` }
-          }),
+          fetchAllByCursor<Task>('http://localhost:8081/api/tasks?size=500', { Authorization: `Bearer ${token}` }),
           fetch('http://localhost:8081/api/meetings', {
             headers: { Authorization: `Bearer ${token}` }
           })
@@ -71,15 +70,14 @@ export default function AdminDashboard({
 
         const peopleData = await peopleRes.json();
         const deptData = await deptRes.json();
-        const tasksData = await tasksRes.json();
         const meetingsData = await meetingsRes.json();
 
         const totalEmployees = Array.isArray(peopleData) ? peopleData.length : (peopleData.totalElements || 0);
         const activeDepartments = Array.isArray(deptData) ? deptData.length : 0;
-        const totalTasks = Array.isArray(tasksData) ? tasksData.length : 0;
-        const closedTasks = Array.isArray(tasksData) ? tasksData.filter((task: Task) => task.status === 'CLOSED').length : 0;
+        const totalTasks = tasksData.length;
+        const closedTasks = tasksData.filter((task: Task) => task.status === 'CLOSED').length;
 
-        const tasks: Task[] = Array.isArray(tasksData) ? tasksData : [];
+        const tasks: Task[] = tasksData;
         const meetings: Meeting[] = Array.isArray(meetingsData) ? meetingsData : [];
         
         const completedTasks = tasks.filter((task: Task) => task.status === 'COMPLETED' || task.status === 'CLOSED').length;
@@ -103,12 +101,7 @@ export default function AdminDashboard({
           averageTaskCompletion
         });
 
-        if (Array.isArray(tasksData)) {
-          const sortedTasks = tasksData.sort((a: Task, b: Task) => 
-            new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime()
-          );
-          setDashboardTasks(sortedTasks);
-        }
+        setDashboardTasks(tasksData);
 
         if (Array.isArray(meetingsData)) {
           const sortedMeetings = meetingsData.sort((a: Meeting, b: Meeting) => 
@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useAuth } from '../../context/AuthContext';
+import { fetchAllByCursor, fetchAllPages } from '../../utils/paging';
 import DashCard from './DashCard';
 import type { Task, Department, Meeting, Person } from '../../types/models';
 import { ReactComponent as DashboardIcon } from '../../icons/dashboard.svg';
@@ -38,21 +39,15 @@ export default function EmployeeDashboard({ onViewAllTasks, onViewAllMeetings }:
     const loadData = async () => {
       setLoading(true);
       try {
-        const [userRes, myTasksRes, myMeetingsRes] = await Promise.all([
+        const [userRes, tasks, meetings] = await Promise.all([
           fetch(`http://localhost:8081/api/people?size=1&email=${encodeURIComponent(user.email)}`, {
             headers: { Authorization: `Bearer ${token}` }
           }),
-          fetch('http://localhost:8081/api/tasks/me', {
-            headers: { Authorization: `Bearer ${token}` }
-          }),
-          fetch('http://localhost:8081/api/meetings/me', {
-            headers: { Authorization: `Bearer ${token}` }
-          })
+          fetchAllByCursor<Task>('http://localhost:8081/api/tasks/me?size=500', { Authorization: `Bearer ${token}` }),
+          fetchAllPages<Meeting>('http://localhost:8081/api/meetings/me?size=500', { Authorization: `Bearer ${token}` })
         ]);
 
         const userData = await userRes.json();
-        const myTasksData = await myTasksRes.json();
-        const myMeetingsData = await myMeetingsRes.json();
 
         const userContent = Array.isArray(userData) ? userData : (userData?.content ?? []);
         if (userContent.length > 0) {
@@ -75,9 +70,6 @@ export default function EmployeeDashboard({ onViewAllTasks, onViewAllMeetings }:
           }
         }
 
-        const tasks: Task[] = Array.isArray(myTasksData) ? myTasksData : [];
-        const meetings: Meeting[] = Array.isArray(myMeetingsData) ? myMeetingsData : [];
-        
         const sortedTasks = tasks.sort((a: Task, b: Task) => 
           new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime()
         );
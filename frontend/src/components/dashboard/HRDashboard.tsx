@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useAuth } from '../../context/AuthContext';
+import { fetchAllByCursor, fetchAllPages } from '../../utils/paging';
 import DashCard from './DashCard';
 import ActionButton from './ActionButton';
 import type { Task, Meeting, Person } from '../../types/models';
@@ -48,16 +49,12 @@ export default function HRDashboard({
     const loadData = async () => {
       setLoading(true);
       try {
-        const [userRes, myTasksRes, myMeetingsRes, peopleRes, deptRes] = await Promise.all([
+        const [userRes, tasks, meetings, peopleRes, deptRes] = await Promise.all([
           fetch(`http://localhost:8081/api/people?size=1&email=${encodeURIComponent(user.email)}`, {
             headers: { Authorization: `Bearer ${token}` }
           }),
-          fetch('http://localhost:8081/api/tasks/user', {
-            headers: { Authorization: `Bearer ${token}` }
-          }),
-          fetch('http://localhost:8081/api/meetings/user', {
-            headers: { Authorization: `Bearer ${token}` }
-          }),
+          fetchAllByCursor<Task>('http://localhost:8081/api/tasks/user?size=500', { Authorization: `Bearer ${token}` }),
+          fetchAllPages<Meeting>('http://localhost:8081/api/meetings/user?size=500', { Authorization: `Bearer ${token}` }),
           fetch('http://localhost:8081/api/people', {
             headers: { Authorization: `Bearer ${token}` }
           }),
@@ -67,8 +64,6 @@ export default function HRDashboard({
         ]);
 
         const userData = await userRes.json();
-        const myTasksData = await myTasksRes.json();
-        const myMeetingsData = await myMeetingsRes.json();
         const peopleData = await peopleRes.json();
         const deptData = await deptRes.json();
 
@@ -79,9 +74,6 @@ export default function HRDashboard({
         const totalEmployees = Array.isArray(peopleData) ? peopleData.length : (peopleData.totalElements || 0);
         const activeDepartments = Array.isArray(deptData) ? deptData.length : 0;
 
-        const tasks: Task[] = Array.isArray(myTasksData) ? myTasksData : [];
-        const meetings: Meeting[] = Array.isArray(myMeetingsData) ? myMeetingsData : [];
-        
         const sortedTasks = tasks.sort((a: Task, b: Task) => 
           new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime()
         );
@@ -1,5 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useAuth } from '../../context/AuthContext';
+import { fetchAllByCursor, fetchAllPages } from '../../utils/paging';
 import DashCard from './DashCard';
 import ActionButton from './ActionButton';
 import type { Task, Meeting, Department } from '../../types/models';
@@ -50,21 +51,15 @@ export default function HeadDashboard({
     const loadData = async () => {
       setLoading(true);
       try {
-        const [userRes, myTasksRes, myMeetingsRes] = await Promise.all([
+        const [userRes, tasks, meetings] = await Promise.all([
           fetch(`http://localhost:8081/api/people?size=1&email=${encodeURIComponent(user.email)}`, {
             headers: { Authorization: `Bearer ${token}` }
           }),
-          fetch('http://localhost:8081/api/tasks/user', {
-            headers: { Authorization: `Bearer ${token}` }
-          }),
-          fetch('http://localhost:8081/api/meetings/user', {
-            headers: { Authorization: `Bearer ${token}` }
-          })
+          fetchAllByCursor<Task>('http://localhost:8081/api/tasks/user?size=500', { Authorization: `Bearer ${token}` }),
+          fetchAllPages<Meeting>('http://localhost:8081/api/meetings/user?size=500', { Authorization: `Bearer ${token}` })
         ]);
 
         const userData = await userRes.json();
-        const myTasksData = await myTasksRes.json();
-        const myMeetingsData = await myMeetingsRes.json();
 
         const userContent = Array.isArray(userData) ? userData : (userData?.content ?? []);
         if (userContent.length > 0) {
@@ -74,28 +69,22 @@ export default function HeadDashboard({
 
           if (!department) return;
 
-          const [deptPeopleRes, allTasksRes, deptMeetingsRes] = await Promise.all([
+          const [deptPeopleRes, deptTasks, deptMeetingsRes] = await Promise.all([
             fetch(`http://localhost:8081/api/people?departmentId=${department.id}&size=1000`, {
               headers: { Authorization: `Bearer ${token}` }
             }),
-            fetch('http://localhost:8081/api/tasks', {
-              headers: { Authorization: `Bearer ${token}` }
-            }),
+            fetchAllByCursor<Task>(`http://localhost:8081/api/tasks?departmentId=${department.id}&size=500`, { Authorization: `Bearer ${token}` }),
             fetch(`http://localhost:8081/api/meetings/department/${department.id}`, {
               headers: { Authorization: `Bearer ${token}` }
             })
           ]);
 
           const deptPeopleData = await deptPeopleRes.json();
-          const allTasksData = await allTasksRes.json();
           const deptMeetingsData = await deptMeetingsRes.json();
 
           const deptPeople = Array.isArray(deptPeopleData) ? deptPeopleData : (deptPeopleData.content || []);
           const departmentEmployees = deptPeople.length;
 
-          const deptTasks: Task[] = (Array.isArray(allTasksData) ? allTasksData : [])
-            .filter((task: Task) => task.department?.id === department.id);
-          
           const openDeptTasks = deptTasks.filter(task => task.status !== 'CLOSED');
           
           const currentMonth = new Date().getMonth();
@@ -129,9 +118,6 @@ export default function HeadDashboard({
           });
         }
 
-        const tasks: Task[] = Array.isArray(myTasksData) ? myTasksData : [];
-        const meetings: Meeting[] = Array.isArray(myMeetingsData) ? myMeetingsData : [];
-        
         const sortedTasks = tasks.sort((a: Task, b: Task) => 
           new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime()
         );
@@ -84,14 +84,19 @@ export function DataProvider({ children }: { children: React.ReactNode }) {
     if (!shouldFetch(people.lastFetched, force)) return;
     setPeople((s) => ({ ...s, loading: true }));
     try {
-      const res = await fetch('http://localhost:8081/api/people?page=0&size=1000', { headers: authHeader as any });
-      if (res.ok) {
+      const content: Person[] = [];
+      let cursor: string | null = '';
+      while (cursor !== null) {
+        const res = await fetch(`http://localhost:8081/api/people?size=500&cursor=${encodeURIComponent(cursor)}`, { headers: authHeader as any });
+        if (!res.ok) {
+          setPeople((s) => ({ ...s, loading: false }));
+          return;
+        }
         const raw = await res.json();
-        const content: Person[] = Array.isArray(raw) ? raw : (raw?.content || []);
-        setPeople({ data: content, loading: false, lastFetched: Date.now() });
-      } else {
-        setPeople((s) => ({ ...s, loading: false }));
+        content.push(...(Array.isArray(raw) ? raw : (raw?.content || [])));
+        cursor = raw?.hasNext ? raw.nextCursor : null;
       }
+      setPeople({ data: content, loading: false, lastFetched: Date.now() });
     } catch {
       setPeople((s) => ({ ...s, loading: false }));
     }
@@ -102,14 +107,19 @@ export function DataProvider({ children }: { children: React.ReactNode }) {
     if (!shouldFetch(tasks.lastFetched, force)) return;
     setTasks((s) => ({ ...s, loading: true }));
     try {
-      const res = await fetch('http://localhost:8081/api/tasks', { headers: authHeader as any });
-      if (res.ok) {
+      const list: Task[] = [];
+      let cursor: string | null = '';
+      while (cursor !== null) {
+        const res = await fetch(`http://localhost:8081/api/tasks?size=500&cursor=${encodeURIComponent(cursor)}`, { headers: authHeader as any });
+        if (!res.ok) {
+          setTasks((s) => ({ ...s, loading: false }));
+          return;
+        }
         const raw = await res.json();
-        const list: Task[] = Array.isArray(raw) ? raw : (raw?.content || []);
-        setTasks({ data: list, loading: false, lastFetched: Date.now() });
-      } else {
-        setTasks((s) => ({ ...s, loading: false }));
+        list.push(...(Array.isArray(raw) ? raw : (raw?.content || [])));
+        cursor = raw?.hasNext ? raw.nextCursor : null;
       }
+      setTasks({ data: list, loading: false, lastFetched: Date.now() });
     } catch {
       setTasks((s) => ({ ...s, loading: false }));
     }
@@ -0,0 +1,31 @@
+type AuthHeaders = Record<string, string>;
+
+const withParam = (url: string, name: string, value: string) =>
+  `${url}${url.includes('?') ? '&' : '?'}${name}=${encodeURIComponent(value)}`;
+
+// Follows nextCursor through a cursor-paginated listing such as /api/tasks; stops early on an error response.
+export async function fetchAllByCursor<T>(url: string, headers: AuthHeaders): Promise<T[]> {
+  const items: T[] = [];
+  let cursor: string | null = '';
+  while (cursor !== null) {
+    const res = await fetch(withParam(url, 'cursor', cursor), { headers });
+    if (!res.ok) break;
+    const raw = await res.json();
+    items.push(...(Array.isArray(raw) ? raw : (raw?.content ?? [])));
+    cursor = raw?.hasNext ? raw.nextCursor : null;
+  }
+  return items;
+}
+
+// Requests page 0, 1, ... of a page-numbered listing such as /api/meetings/me until the last page.
+export async function fetchAllPages<T>(url: string, headers: AuthHeaders): Promise<T[]> {
+  const items: T[] = [];
+  for (let page = 0; ; page++) {
+    const res = await fetch(withParam(url, 'page', String(page)), { headers });
+    if (!res.ok) break;
+    const raw = await res.json();
+    items.push(...(Array.isArray(raw) ? raw : (raw?.content ?? [])));
+    if (Array.isArray(raw) || raw?.last !== false) break;
+  }
+  return items;
+}
@@ -0,0 +1,51 @@
+package com.example.notificationservice.config;
+
+import com.example.notificationservice.dto.TokenClaims;
+import com.example.notificationservice.service.JwtVerifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Authenticates requests carrying an auth-service token; only the admin endpoints require one. */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            TokenClaims claims = jwtVerifier.verify(authHeader.substring(7)).orElse(null);
+            if (claims != null) {
+                List<GrantedAuthority> authorities = new ArrayList<>();
+                if (claims.role() != null && !claims.role().isEmpty()) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + claims.role()));
+                }
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(claims.email(), null, authorities));
+                log.debug("Auth success for {} with role {}", claims.email(), claims.role());
+            } else {
+                log.warn("Invalid token presented");
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.notificationservice.config;
 
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.amqp.support.converter.DefaultClassMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class RabbitMQConfig {
@@ -23,6 +34,13 @@ public class RabbitMQConfig {
     public static final String MEETING_INVITATION_QUEUE = "meeting.invitation.queue";
     public static final String USER_PROVISIONED_QUEUE = "user.provisioned.queue";
 
+    /** Messages that failed all listener retries are rejected onto {@code <queue>.dlq} through this exchange. */
+    public static final String NOTIFICATION_DLX = "notification.dlx";
+    public static final String DEAD_LETTER_SUFFIX = ".dlq";
+
+    public static final List<String> QUEUES = List.of(
+            PERSON_UPDATE_QUEUE, TASK_ASSIGNMENT_QUEUE, MEETING_INVITATION_QUEUE, USER_PROVISIONED_QUEUE);
+
     public static final String PERSON_UPDATE_ROUTING_KEY = "person.update";
     public static final String TASK_ASSIGNMENT_ROUTING_KEY = "task.assignment";
     public static final String MEETING_INVITATION_ROUTING_KEY = "meeting.invitation";
@@ -49,29 +67,115 @@ public class RabbitMQConfig {
         return rabbitTemplate;
     }
 
+    /**
+     * Queues declared before the dead-letter arguments existed cannot be redeclared with them;
+     * the admin logs a warning for those and carries on, and a broker policy can add the DLX.
+     */
     @Bean
     public RabbitAdmin amqpAdmin(ConnectionFactory connectionFactory) {
-        return new RabbitAdmin(connectionFactory);
+        RabbitAdmin admin = new RabbitAdmin(connectionFactory);
+        admin.setIgnoreDeclarationExceptions(true);
+        return admin;
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory personUpdateListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory, Environment env) {
+        return listenerFactory(configurer, connectionFactory, env, "person-update");
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory taskAssignmentListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory, Environment env) {
+        return listenerFactory(configurer, connectionFactory, env, "task-assignment");
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory meetingInvitationListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory, Environment env) {
+        return listenerFactory(configurer, connectionFactory, env, "meeting-invitation");
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory userProvisionedListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory, Environment env) {
+        return listenerFactory(configurer, connectionFactory, env, "user-provisioned");
+    }
+
+    /**
+     * Consumers ack manually once the notification is handled. A failing message is retried in
+     * place with backoff and then rejected without requeue, which the broker routes to the DLQ.
+     */
+    private static SimpleRabbitListenerContainerFactory listenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                        ConnectionFactory connectionFactory, Environment env, String key) {
+        String prefix = "notification.listeners." + key + ".";
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(env.getProperty(prefix + "concurrency", Integer.class, 1));
+        factory.setMaxConcurrentConsumers(env.getProperty(prefix + "max-concurrency", Integer.class, 4));
+        factory.setPrefetchCount(env.getProperty(prefix + "prefetch", Integer.class, 10));
+        factory.setDefaultRequeueRejected(false);
+        factory.setAdviceChain(retryInterceptor(env));
+        return factory;
+    }
+
+    private static RetryOperationsInterceptor retryInterceptor(Environment env) {
+        // Unreadable payloads will not get better on a second try.
+        SimpleRetryPolicy policy = new SimpleRetryPolicy(env.getProperty("notification.retry.max-attempts", Integer.class, 3),
+                Map.of(MessageConversionException.class, false), true, true);
+        return RetryInterceptorBuilder.stateless()
+                .retryPolicy(policy)
+                .backOffOptions(env.getProperty("notification.retry.initial-interval-ms", Long.class, 1000L),
+                        env.getProperty("notification.retry.multiplier", Double.class, 2.0),
+                        env.getProperty("notification.retry.max-interval-ms", Long.class, 10000L))
+                .recoverer((message, cause) -> {
+                    throw new AmqpRejectAndDontRequeueException("Retries exhausted", true, cause);
+                })
+                .build();
+    }
+
+    @Bean
+    public DirectExchange notificationDeadLetterExchange() {
+        return new DirectExchange(NOTIFICATION_DLX);
+    }
+
+    @Bean
+    public Declarables deadLetterQueues() {
+        List<Declarable> declarables = new java.util.ArrayList<>();
+        for (String queue : QUEUES) {
+            Queue dlq = QueueBuilder.durable(queue + DEAD_LETTER_SUFFIX).build();
+            declarables.add(dlq);
+            declarables.add(BindingBuilder.bind(dlq).to(notificationDeadLetterExchange()).with(queue));
+        }
+        return new Declarables(declarables);
     }
 
     @Bean
     public Queue personUpdateQueue() {
-        return new Queue(PERSON_UPDATE_QUEUE, true);
+        return deadLettered(PERSON_UPDATE_QUEUE);
     }
 
     @Bean
     public Queue taskAssignmentQueue() {
-        return new Queue(TASK_ASSIGNMENT_QUEUE, true);
+        return deadLettered(TASK_ASSIGNMENT_QUEUE);
     }
 
     @Bean
     public Queue meetingInvitationQueue() {
-        return new Queue(MEETING_INVITATION_QUEUE, true);
+        return deadLettered(MEETING_INVITATION_QUEUE);
     }
 
     @Bean
     public Queue userProvisionedQueue() {
-        return new Queue(USER_PROVISIONED_QUEUE, true);
+        return deadLettered(USER_PROVISIONED_QUEUE);
+    }
+
+    private static Queue deadLettered(String name) {
+        return QueueBuilder.durable(name)
+                .deadLetterExchange(NOTIFICATION_DLX)
+                .deadLetterRoutingKey(name)
+                .build();
     }
 
     @Bean
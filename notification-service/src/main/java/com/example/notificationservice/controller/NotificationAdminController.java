@@ -1,22 +1,117 @@
 package com.example.notificationservice.controller;
 
+import com.example.notificationservice.model.DeadLetterMail;
+import com.example.notificationservice.model.NotificationLedgerEntry;
+import com.example.notificationservice.repository.DeadLetterMailRepository;
+import com.example.notificationservice.service.MailDispatcher;
+import com.example.notificationservice.service.NotificationLedger;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/notifications")
 @Tag(name = "Notifications", description = "Notification utilities")
 public class NotificationAdminController {
 
+    private final DeadLetterMailRepository deadLetterRepository;
+    private final MailDispatcher mailDispatcher;
+    private final NotificationLedger notificationLedger;
+
+    public NotificationAdminController(DeadLetterMailRepository deadLetterRepository, MailDispatcher mailDispatcher,
+                                       NotificationLedger notificationLedger) {
+        this.deadLetterRepository = deadLetterRepository;
+        this.mailDispatcher = mailDispatcher;
+        this.notificationLedger = notificationLedger;
+    }
+
+    public record DeadLetterView(Long id, String eventId, String recipient, String subject, int attempts, boolean permanent,
+                                 boolean redeliverable, String lastError, LocalDateTime failedAt) {
+        static DeadLetterView of(DeadLetterMail dead) {
+            return new DeadLetterView(dead.getId(), dead.getEventId(), dead.getRecipient(), dead.getSubject(), dead.getAttempts(),
+                    dead.isPermanent(), dead.isRedeliverable(), dead.getLastError(), dead.getFailedAt());
+        }
+    }
+
+    public record LedgerView(String eventId, NotificationLedgerEntry.Type type, String recipient,
+                             NotificationLedgerEntry.Status status, LocalDateTime recordedAt, LocalDateTime completedAt) {
+        static LedgerView of(NotificationLedgerEntry entry) {
+            return new LedgerView(entry.getEventId(), entry.getType(), entry.getRecipient(), entry.getStatus(),
+                    entry.getRecordedAt(), entry.getCompletedAt());
+        }
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("OK");
     }
-}
 
+    @GetMapping("/dead-letters")
+    @Operation(summary = "Most recent mails that could not be delivered")
+    public ResponseEntity<List<DeadLetterView>> deadLetters(@RequestParam(defaultValue = "50") int limit) {
+        int size = Math.max(1, Math.min(limit, 500));
+        return ResponseEntity.ok(deadLetterRepository.findAllByOrderByIdDesc(PageRequest.of(0, size)).stream()
+                .map(DeadLetterView::of).toList());
+    }
+
+    @PostMapping("/dead-letters/{id}/redeliver")
+    @Operation(summary = "Send a dead-lettered mail again")
+    public ResponseEntity<?> redeliver(@PathVariable Long id) {
+        return deadLetterRepository.findById(id).<ResponseEntity<?>>map(dead -> {
+            if (!dead.isRedeliverable()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error",
+                        "mail for event " + dead.getEventId() + " was confidential and not kept; issue it again from its source"));
+            }
+            MailDispatcher.Result result = mailDispatcher.redeliver(dead);
+            if (result.sent() > 0 && dead.getEventId() != null) {
+                notificationLedger.markSent(dead.getEventId(), dead.getRecipient());
+            }
+            return ResponseEntity.ok(result);
+        }).orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/ledger")
+    @Operation(summary = "Delivery status per recipient, for one event or for one recipient's latest notifications")
+    public ResponseEntity<?> ledger(@RequestParam(required = false) String eventId,
+                                    @RequestParam(required = false) String recipient,
+                                    @RequestParam(defaultValue = "50") int limit) {
+        if (eventId != null && !eventId.isBlank()) {
+            return ResponseEntity.ok(notificationLedger.forEvent(eventId).stream().map(LedgerView::of).toList());
+        }
+        if (recipient != null && !recipient.isBlank()) {
+            return ResponseEntity.ok(notificationLedger.forRecipient(recipient, Math.max(1, Math.min(limit, 500))).stream()
+                    .map(LedgerView::of).toList());
+        }
+        return ResponseEntity.badRequest().body(Map.of("error", "eventId or recipient is required"));
+    }
 
+    @GetMapping("/ledger/stats")
+    @Operation(summary = "Notifications per type and status over a window, with sent mails per minute")
+    public ResponseEntity<?> ledgerStats(@RequestParam(defaultValue = "PT1H") String window) {
+        Duration duration;
+        try {
+            duration = Duration.parse(window);
+        } catch (java.time.format.DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "window must be an ISO-8601 duration such as PT1H"));
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "window must be positive"));
+        }
+        List<NotificationLedger.TypeStats> stats = notificationLedger.stats(duration);
+        return ResponseEntity.ok(Map.of("window", duration.toString(), "types", stats));
+    }
+}
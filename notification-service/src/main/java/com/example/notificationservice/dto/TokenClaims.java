@@ -0,0 +1,11 @@
+package com.example.notificationservice.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record TokenClaims(String email, String role, List<String> roles, Instant expiresAt) {
+
+    public TokenClaims {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+}
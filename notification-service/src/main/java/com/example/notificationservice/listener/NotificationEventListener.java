@@ -1,62 +1,116 @@
 package com.example.notificationservice.listener;
 
+import com.example.notificationservice.config.RabbitMQConfig;
 import com.example.notificationservice.event.MeetingInvitationEvent;
 import com.example.notificationservice.event.PersonUpdateEvent;
 import com.example.notificationservice.event.UserProvisionedEvent;
 import com.example.notificationservice.event.TaskAssignmentEvent;
 import com.example.notificationservice.service.NotificationService;
+import com.example.notificationservice.service.PersonUpdateCoalescer;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Each queue has its own container factory (see {@link RabbitMQConfig}). A message is acked
+ * only after its notification was handled; exceptions propagate so the container can retry
+ * and finally dead-letter it. The time since the producer stamped a message is recorded as
+ * {@code notification.consumer.lag}. The AMQP message id is the event id the notification ledger
+ * deduplicates on; both producers set a stable one.
+ */
 @Component
 public class NotificationEventListener {
 
     private final NotificationService notificationService;
+    private final PersonUpdateCoalescer personUpdateCoalescer;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> lagTimers = new ConcurrentHashMap<>();
     private static final Logger log = LoggerFactory.getLogger(NotificationEventListener.class);
 
-    public NotificationEventListener(NotificationService notificationService) {
+    public NotificationEventListener(NotificationService notificationService, PersonUpdateCoalescer personUpdateCoalescer,
+                                     MeterRegistry meterRegistry) {
         this.notificationService = notificationService;
+        this.personUpdateCoalescer = personUpdateCoalescer;
+        this.meterRegistry = meterRegistry;
     }
 
-    @RabbitListener(queues = "person.update.queue")
-    public void handlePersonUpdate(PersonUpdateEvent event) {
-        try {
-            log.info("Person update event received for {}", event.getPersonEmail());
-            notificationService.handlePersonUpdate(event);
-        } catch (Exception e) {
-            log.warn("Failed to handle person update: {}", e.getMessage());
-        }
+    @RabbitListener(queues = RabbitMQConfig.PERSON_UPDATE_QUEUE, containerFactory = "personUpdateListenerFactory")
+    public void handlePersonUpdate(PersonUpdateEvent event, Channel channel,
+                                   @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                   @Header(name = AmqpHeaders.TIMESTAMP, required = false) Date timestamp,
+                                   @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) throws IOException {
+        log.info("Person update event received for {}", event.getPersonEmail());
+        consume(RabbitMQConfig.PERSON_UPDATE_QUEUE, channel, deliveryTag, timestamp,
+                () -> personUpdateCoalescer.add(event, eventId(messageId)));
     }
 
-    @RabbitListener(queues = "task.assignment.queue")
-    public void handleTaskAssignment(TaskAssignmentEvent event) {
-        try {
-            log.info("Task assignment event received for assignee {}", event.getAssigneeEmail());
-            notificationService.handleTaskAssignment(event);
-        } catch (Exception e) {
-            log.warn("Failed to handle task assignment: {}", e.getMessage());
-        }
+    @RabbitListener(queues = RabbitMQConfig.TASK_ASSIGNMENT_QUEUE, containerFactory = "taskAssignmentListenerFactory")
+    public void handleTaskAssignment(TaskAssignmentEvent event, Channel channel,
+                                     @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                     @Header(name = AmqpHeaders.TIMESTAMP, required = false) Date timestamp,
+                                     @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) throws IOException {
+        log.info("Task assignment event received for assignee {}", event.getAssigneeEmail());
+        consume(RabbitMQConfig.TASK_ASSIGNMENT_QUEUE, channel, deliveryTag, timestamp,
+                () -> notificationService.handleTaskAssignment(event, eventId(messageId)));
     }
 
-    @RabbitListener(queues = "meeting.invitation.queue")
-    public void handleMeetingInvitation(MeetingInvitationEvent event) {
-        try {
-            log.info("Meeting invitation event received {}", event.getMeetingTitle());
-            notificationService.handleMeetingInvitation(event);
-        } catch (Exception e) {
-            log.warn("Failed to handle meeting invitation: {}", e.getMessage());
+    @RabbitListener(queues = RabbitMQConfig.MEETING_INVITATION_QUEUE, containerFactory = "meetingInvitationListenerFactory")
+    public void handleMeetingInvitation(MeetingInvitationEvent event, Channel channel,
+                                        @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                        @Header(name = AmqpHeaders.TIMESTAMP, required = false) Date timestamp,
+                                        @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) throws IOException {
+        log.info("Meeting invitation event received {}", event.getMeetingTitle());
+        consume(RabbitMQConfig.MEETING_INVITATION_QUEUE, channel, deliveryTag, timestamp,
+                () -> notificationService.handleMeetingInvitation(event, eventId(messageId)));
+    }
+
+    @RabbitListener(queues = RabbitMQConfig.USER_PROVISIONED_QUEUE, containerFactory = "userProvisionedListenerFactory")
+    public void handleUserProvisioned(UserProvisionedEvent event, Channel channel,
+                                      @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                      @Header(name = AmqpHeaders.TIMESTAMP, required = false) Date timestamp,
+                                      @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) throws IOException {
+        log.info("User provisioned event received for {}", event.getEmail());
+        consume(RabbitMQConfig.USER_PROVISIONED_QUEUE, channel, deliveryTag, timestamp,
+                () -> notificationService.handleUserProvisioned(event, eventId(messageId)));
+    }
+
+    /** Messages without an id cannot be recognised when redelivered; they still get a ledger entry. */
+    private static String eventId(String messageId) {
+        if (messageId != null && !messageId.isBlank()) {
+            return messageId;
         }
+        String generated = UUID.randomUUID().toString();
+        log.debug("Message without an id, recording it as {}", generated);
+        return generated;
     }
 
-    @RabbitListener(queues = "user.provisioned.queue")
-    public void handleUserProvisioned(UserProvisionedEvent event) {
+    private void consume(String queue, Channel channel, long deliveryTag, Date timestamp, Runnable handler) throws IOException {
+        if (timestamp != null) {
+            long lagMs = Math.max(0, System.currentTimeMillis() - timestamp.getTime());
+            lagTimers.computeIfAbsent(queue, q -> Timer.builder("notification.consumer.lag")
+                    .description("Time between the producer stamping a message and a consumer picking it up")
+                    .tag("queue", q)
+                    .register(meterRegistry)).record(Duration.ofMillis(lagMs));
+        }
         try {
-            log.info("User provisioned event received for {}", event.getEmail());
-            notificationService.handleUserProvisioned(event);
-        } catch (Exception e) {
-            log.warn("Failed to handle user provisioned: {}", e.getMessage());
+            handler.run();
+        } catch (RuntimeException e) {
+            log.warn("Failed to handle message from {}: {}", queue, e.getMessage());
+            throw e;
         }
+        channel.basicAck(deliveryTag, false);
     }
 }
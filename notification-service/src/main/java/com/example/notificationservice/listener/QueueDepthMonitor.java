@@ -0,0 +1,68 @@
+package com.example.notificationservice.listener;
+
+import com.example.notificationservice.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the ready-message count and consumer count of every notification queue and its DLQ
+ * as gauges. The broker is polled on a schedule so a metrics scrape never waits on it; the
+ * gauges keep their last value while the broker is unreachable.
+ */
+@Component
+public class QueueDepthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueueDepthMonitor.class);
+
+    private final AmqpAdmin amqpAdmin;
+    private final Map<String, AtomicLong> depths = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> consumers = new LinkedHashMap<>();
+
+    public QueueDepthMonitor(AmqpAdmin amqpAdmin, MeterRegistry meterRegistry) {
+        this.amqpAdmin = amqpAdmin;
+        List<String> queues = new ArrayList<>();
+        for (String queue : RabbitMQConfig.QUEUES) {
+            queues.add(queue);
+            queues.add(queue + RabbitMQConfig.DEAD_LETTER_SUFFIX);
+        }
+        for (String queue : queues) {
+            AtomicLong depth = new AtomicLong();
+            AtomicLong count = new AtomicLong();
+            depths.put(queue, depth);
+            consumers.put(queue, count);
+            Gauge.builder("notification.queue.depth", depth, AtomicLong::get)
+                    .description("Messages ready for delivery").tag("queue", queue).register(meterRegistry);
+            Gauge.builder("notification.queue.consumers", count, AtomicLong::get)
+                    .description("Consumers attached to the queue").tag("queue", queue).register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.metrics.queue-poll-interval-ms:10000}")
+    public void poll() {
+        try {
+            for (Map.Entry<String, AtomicLong> e : depths.entrySet()) {
+                QueueInformation info = amqpAdmin.getQueueInfo(e.getKey());
+                if (info == null) {
+                    continue;
+                }
+                e.getValue().set(info.getMessageCount());
+                consumers.get(e.getKey()).set(info.getConsumerCount());
+            }
+        } catch (AmqpException e) {
+            log.debug("Could not read queue depths: {}", e.getMessage());
+        }
+    }
+}
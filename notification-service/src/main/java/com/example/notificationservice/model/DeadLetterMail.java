@@ -0,0 +1,65 @@
+package com.example.notificationservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A mail that exhausted its delivery attempts, kept with its rendered body so it can be replayed.
+ * Confidential mails are kept without a body and cannot be replayed; {@code eventId} identifies them.
+ */
+@Entity
+@Table(name = "mail_dead_letter", indexes = {
+        @Index(name = "idx_mail_dead_letter_failed_at", columnList = "failed_at")
+})
+public class DeadLetterMail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_dead_letter_seq")
+    @SequenceGenerator(name = "mail_dead_letter_seq", sequenceName = "mail_dead_letter_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "event_id", length = 64)
+    private String eventId;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(name = "body")
+    private String body;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "permanent", nullable = false)
+    private boolean permanent;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt = LocalDateTime.now();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+    public boolean isRedeliverable() { return body != null; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public boolean isPermanent() { return permanent; }
+    public void setPermanent(boolean permanent) { this.permanent = permanent; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public LocalDateTime getFailedAt() { return failedAt; }
+    public void setFailedAt(LocalDateTime failedAt) { this.failedAt = failedAt; }
+}
@@ -0,0 +1,73 @@
+package com.example.notificationservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One notification for one recipient. The row is claimed as PENDING before the mail goes out,
+ * so a redelivered event finds it and is not mailed twice.
+ */
+@Entity
+@Table(name = "notification_ledger", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_notification_ledger_event_recipient", columnNames = {"event_id", "recipient"})
+}, indexes = {
+        @Index(name = "idx_notification_ledger_recorded_at", columnList = "recorded_at, type"),
+        @Index(name = "idx_notification_ledger_recipient", columnList = "recipient")
+})
+public class NotificationLedgerEntry {
+
+    public enum Type {
+        PERSON_UPDATE,
+        TASK_ASSIGNMENT,
+        MEETING_INVITATION,
+        USER_PROVISIONED
+    }
+
+    public enum Status {
+        PENDING,
+        SENT,
+        DEAD_LETTERED,
+        /** Coalesced into a digest whose changes cancelled out, so nothing was sent. */
+        SUPPRESSED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_ledger_seq")
+    @SequenceGenerator(name = "notification_ledger_seq", sequenceName = "notification_ledger_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, length = 64)
+    private String eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private Type type;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(name = "recorded_at", nullable = false)
+    private LocalDateTime recordedAt = LocalDateTime.now();
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -0,0 +1,68 @@
+package com.example.notificationservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/** Person updates received within the coalescing window, merged into one pending digest per person. */
+@Entity
+@Table(name = "person_update_buffer", indexes = {
+        @Index(name = "idx_person_update_buffer_due_at", columnList = "due_at")
+})
+public class PendingPersonUpdate {
+
+    @Id
+    @Column(name = "person_id")
+    private Long personId;
+
+    @Version
+    private Long version;
+
+    @Column(name = "person_email", nullable = false)
+    private String personEmail;
+
+    @Column(name = "person_name")
+    private String personName;
+
+    @Column(name = "updated_by_names")
+    private String updatedByNames;
+
+    /** JSON array of merged field changes, one per field. */
+    @Lob
+    @Column(name = "changes", nullable = false)
+    private String changes;
+
+    /** Comma-separated ids of the events merged in, completed in the ledger once the digest is sent. */
+    @Lob
+    @Column(name = "event_ids", nullable = false)
+    private String eventIds;
+
+    @Column(name = "event_count", nullable = false)
+    private int eventCount;
+
+    @Column(name = "last_updated_at")
+    private LocalDateTime lastUpdatedAt;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    public Long getPersonId() { return personId; }
+    public void setPersonId(Long personId) { this.personId = personId; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public String getPersonEmail() { return personEmail; }
+    public void setPersonEmail(String personEmail) { this.personEmail = personEmail; }
+    public String getPersonName() { return personName; }
+    public void setPersonName(String personName) { this.personName = personName; }
+    public String getUpdatedByNames() { return updatedByNames; }
+    public void setUpdatedByNames(String updatedByNames) { this.updatedByNames = updatedByNames; }
+    public String getChanges() { return changes; }
+    public void setChanges(String changes) { this.changes = changes; }
+    public String getEventIds() { return eventIds; }
+    public void setEventIds(String eventIds) { this.eventIds = eventIds; }
+    public int getEventCount() { return eventCount; }
+    public void setEventCount(int eventCount) { this.eventCount = eventCount; }
+    public LocalDateTime getLastUpdatedAt() { return lastUpdatedAt; }
+    public void setLastUpdatedAt(LocalDateTime lastUpdatedAt) { this.lastUpdatedAt = lastUpdatedAt; }
+    public LocalDateTime getDueAt() { return dueAt; }
+    public void setDueAt(LocalDateTime dueAt) { this.dueAt = dueAt; }
+}
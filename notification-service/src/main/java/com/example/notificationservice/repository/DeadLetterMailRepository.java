@@ -0,0 +1,13 @@
+package com.example.notificationservice.repository;
+
+import com.example.notificationservice.model.DeadLetterMail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeadLetterMailRepository extends JpaRepository<DeadLetterMail, Long> {
+    List<DeadLetterMail> findAllByOrderByIdDesc(Pageable pageable);
+}
@@ -0,0 +1,44 @@
+package com.example.notificationservice.repository;
+
+import com.example.notificationservice.model.NotificationLedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationLedgerRepository extends JpaRepository<NotificationLedgerEntry, Long> {
+
+    List<NotificationLedgerEntry> findByEventIdAndRecipientIn(String eventId, Collection<String> recipients);
+
+    List<NotificationLedgerEntry> findByEventIdOrderByIdAsc(String eventId);
+
+    List<NotificationLedgerEntry> findByRecipientOrderByIdDesc(String recipient, Pageable pageable);
+
+    @Modifying
+    @Query("update NotificationLedgerEntry e set e.status = :status, e.completedAt = :at " +
+            "where e.eventId = :eventId and e.recipient in :recipients")
+    int complete(@Param("eventId") String eventId, @Param("recipients") Collection<String> recipients,
+                 @Param("status") NotificationLedgerEntry.Status status, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("update NotificationLedgerEntry e set e.status = :status, e.completedAt = :at where e.eventId in :eventIds")
+    int completeEvents(@Param("eventIds") Collection<String> eventIds,
+                       @Param("status") NotificationLedgerEntry.Status status, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("delete from NotificationLedgerEntry e where e.eventId = :eventId and e.recipient in :recipients " +
+            "and e.status = com.example.notificationservice.model.NotificationLedgerEntry.Status.PENDING")
+    int deletePending(@Param("eventId") String eventId, @Param("recipients") Collection<String> recipients);
+
+    /** Rows are {@code [type, status, count]}. */
+    @Query("select e.type, e.status, count(e) from NotificationLedgerEntry e " +
+            "where e.recordedAt >= :since group by e.type, e.status")
+    List<Object[]> countByTypeAndStatus(@Param("since") LocalDateTime since);
+}
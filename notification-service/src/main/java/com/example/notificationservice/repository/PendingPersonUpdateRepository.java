@@ -0,0 +1,25 @@
+package com.example.notificationservice.repository;
+
+import com.example.notificationservice.model.PendingPersonUpdate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PendingPersonUpdateRepository extends JpaRepository<PendingPersonUpdate, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PendingPersonUpdate p where p.personId = :personId")
+    Optional<PendingPersonUpdate> findForUpdate(@Param("personId") Long personId);
+
+    @Query("select p.personId from PendingPersonUpdate p where p.dueAt <= :now order by p.dueAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,123 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.dto.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigInteger;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Verifies auth-service tokens against the keys published on /auth/jwks, the same way
+ * personnel-service does. Keys are fetched at startup, refreshed in the background, and
+ * re-fetched on demand when a token names a key id we have not seen yet.
+ */
+@Service
+public class JwtVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerifier.class);
+    private static final long MIN_ON_DEMAND_REFRESH_MS = 30_000;
+
+    private final RestClient restClient;
+    private final JwtParser parser;
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastRefreshAt;
+
+    public JwtVerifier(@Value("${auth-service.url}") String authServiceUrl) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(5_000);
+        requestFactory.setReadTimeout(5_000);
+        this.restClient = RestClient.builder().baseUrl(authServiceUrl).requestFactory(requestFactory).build();
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    public Optional<TokenClaims> verify(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            List<?> rawRoles = claims.get("roles", List.class);
+            List<String> roles = rawRoles != null ? rawRoles.stream().map(String::valueOf).toList() : List.of();
+            return Optional.of(new TokenClaims(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    roles,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token verification failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth-service.jwks-refresh-ms:300000}")
+    public void refreshKeys() {
+        try {
+            Map<?, ?> body = restClient.get().uri("/auth/jwks").retrieve().body(Map.class);
+            Map<String, PublicKey> loaded = new HashMap<>();
+            Object list = body != null ? body.get("keys") : null;
+            if (list instanceof List<?> jwks) {
+                KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+                for (Object o : jwks) {
+                    if (!(o instanceof Map<?, ?> jwk) || !"RSA".equals(jwk.get("kty"))) continue;
+                    BigInteger n = new BigInteger(1, Base64.getUrlDecoder().decode(String.valueOf(jwk.get("n"))));
+                    BigInteger e = new BigInteger(1, Base64.getUrlDecoder().decode(String.valueOf(jwk.get("e"))));
+                    loaded.put(String.valueOf(jwk.get("kid")), keyFactory.generatePublic(new RSAPublicKeySpec(n, e)));
+                }
+            }
+            if (!loaded.isEmpty()) {
+                keys = Map.copyOf(loaded);
+                log.info("Loaded {} signing key(s) from auth-service", loaded.size());
+            } else {
+                log.warn("auth-service returned no signing keys");
+            }
+        } catch (Exception e) {
+            log.warn("Failed to refresh signing keys: {}", e.getMessage());
+        } finally {
+            lastRefreshAt = System.currentTimeMillis();
+        }
+    }
+
+    private Key resolveKey(String keyId) {
+        if (keyId == null) {
+            throw new JwtException("Token has no key id");
+        }
+        PublicKey key = keys.get(keyId);
+        if (key == null && System.currentTimeMillis() - lastRefreshAt > MIN_ON_DEMAND_REFRESH_MS) {
+            synchronized (this) {
+                if (System.currentTimeMillis() - lastRefreshAt > MIN_ON_DEMAND_REFRESH_MS) {
+                    log.info("Unknown signing key {}, refreshing", keyId);
+                    refreshKeys();
+                }
+            }
+            key = keys.get(keyId);
+        }
+        if (key == null) {
+            throw new JwtException("Unknown signing key " + keyId);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.model.DeadLetterMail;
+import com.example.notificationservice.repository.DeadLetterMailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends rendered mails on a bounded worker pool over pooled SMTP connections. Each recipient
+ * is retried on its own with exponential backoff; once its attempts are used up, or the server
+ * rejects the address outright, the mail is written to the dead-letter table instead of being
+ * dropped. When the queue is full the submitting thread sends the mail itself, which slows the
+ * listener down rather than buffering without bound; a retry that finds it full waits for room.
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+    private static final long RETRY_REQUEUE_MS = 100;
+
+    /**
+     * {@code eventId} is the notification the mail belongs to, if any; it travels into the dead-letter table.
+     * A {@code confidential} mail, such as one carrying credentials, is dead-lettered by that reference only.
+     */
+    public record Mail(String to, String subject, String html, String eventId, boolean confidential) {
+        public Mail(String to, String subject, String html) {
+            this(to, subject, html, null, false);
+        }
+
+        public Mail withEventId(String eventId) {
+            return new Mail(to, subject, html, eventId, confidential);
+        }
+
+        public Mail asConfidential() {
+            return new Mail(to, subject, html, eventId, true);
+        }
+    }
+
+    /** {@code delivered} is in the order the mails were given. */
+    public record Result(int sent, int deadLettered, List<Boolean> delivered) {
+    }
+
+    private static final class Delivery {
+        private final Mail mail;
+        private final CompletableFuture<Boolean> done = new CompletableFuture<>();
+        private int attempts;
+
+        private Delivery(Mail mail) {
+            this.mail = mail;
+        }
+    }
+
+    private final JavaMailSenderImpl mailSender;
+    private final SmtpTransportPool transportPool;
+    private final DeadLetterMailRepository deadLetterRepository;
+    private final String from;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final double backoffMultiplier;
+    private final long maxBackoffMs;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Timer sendTimer;
+
+    public MailDispatcher(JavaMailSenderImpl mailSender,
+                          SmtpTransportPool transportPool,
+                          DeadLetterMailRepository deadLetterRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${spring.mail.username}") String from,
+                          @Value("${mail.dispatch.threads:4}") int threads,
+                          @Value("${mail.dispatch.queue-capacity:500}") int queueCapacity,
+                          @Value("${mail.dispatch.max-attempts:4}") int maxAttempts,
+                          @Value("${mail.dispatch.initial-backoff-ms:1000}") long initialBackoffMs,
+                          @Value("${mail.dispatch.backoff-multiplier:2.0}") double backoffMultiplier,
+                          @Value("${mail.dispatch.max-backoff-ms:30000}") long maxBackoffMs) {
+        this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.deadLetterRepository = deadLetterRepository;
+        this.from = from;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mail-retry");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "mail-dispatch-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, this::rejected);
+        ExecutorServiceMetrics.monitor(meterRegistry, workers, "mail.dispatch");
+        this.sent = Counter.builder("mail.dispatch.sent")
+                .description("Mails accepted by the SMTP server").register(meterRegistry);
+        this.retried = Counter.builder("mail.dispatch.retried")
+                .description("Failed send attempts that were scheduled for another try").register(meterRegistry);
+        this.deadLettered = Counter.builder("mail.dispatch.dead_lettered")
+                .description("Mails written to the dead-letter table").register(meterRegistry);
+        this.sendTimer = Timer.builder("mail.dispatch.send.duration")
+                .description("Time spent handing one mail to the SMTP server").register(meterRegistry);
+        log.info("Mail dispatch pool with {} threads, queue of {} and {} attempts per mail", threads, queueCapacity, this.maxAttempts);
+    }
+
+    /** Completes once every mail has either been sent or dead-lettered; it never completes exceptionally. */
+    public CompletableFuture<Result> dispatch(List<Mail> mails) {
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(mails.size());
+        for (Mail mail : mails) {
+            Delivery delivery = new Delivery(mail);
+            futures.add(delivery.done);
+            workers.execute(() -> attempt(delivery));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(v -> {
+            List<Boolean> delivered = futures.stream().map(CompletableFuture::join).toList();
+            int ok = (int) delivered.stream().filter(Boolean::booleanValue).count();
+            Result result = new Result(ok, mails.size() - ok, delivered);
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            log.info("Dispatched {} mails ({} dead-lettered) in {} ms, {} mails/s",
+                    result.sent(), result.deadLettered(), elapsed, String.format("%.1f", result.sent() * 1000.0 / elapsed));
+            return result;
+        });
+    }
+
+    public Result send(List<Mail> mails) {
+        return dispatch(mails).join();
+    }
+
+    /**
+     * Sends a dead letter again. Its row is removed first, so a second failure leaves one fresh row.
+     * A confidential dead letter has no body to send; the caller must check {@link DeadLetterMail#isRedeliverable()}.
+     */
+    public Result redeliver(DeadLetterMail dead) {
+        if (!dead.isRedeliverable()) {
+            throw new IllegalStateException("Dead letter " + dead.getId() + " has no stored body");
+        }
+        deadLetterRepository.delete(dead);
+        return send(List.of(new Mail(dead.getRecipient(), dead.getSubject(), dead.getBody(), dead.getEventId(), false)));
+    }
+
+    private void attempt(Delivery delivery) {
+        delivery.attempts++;
+        SmtpTransportPool.PooledTransport pooled = null;
+        try {
+            MimeMessage message = toMimeMessage(delivery.mail);
+            pooled = transportPool.borrow();
+            long start = System.nanoTime();
+            pooled.transport().sendMessage(message, message.getAllRecipients());
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            transportPool.release(pooled);
+            sent.increment();
+            delivery.done.complete(true);
+        } catch (MessagingException | RuntimeException e) {
+            if (pooled != null) {
+                // A rejected recipient leaves the session usable; anything else may have broken it.
+                if (e instanceof SendFailedException) transportPool.release(pooled);
+                else transportPool.invalidate(pooled);
+            }
+            boolean permanent = isPermanent(e);
+            if (!permanent && delivery.attempts < maxAttempts) {
+                long delay = backoff(delivery.attempts);
+                retried.increment();
+                log.debug("Sending to {} failed (attempt {}), retrying in {} ms: {}",
+                        delivery.mail.to(), delivery.attempts, delay, e.getMessage());
+                retryScheduler.schedule(() -> workers.execute(new Retry(delivery)), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            deadLetter(delivery, e, permanent);
+            delivery.done.complete(false);
+        }
+    }
+
+    /** A retry handed back to the workers by the retry scheduler. */
+    private final class Retry implements Runnable {
+        private final Delivery delivery;
+
+        private Retry(Delivery delivery) {
+            this.delivery = delivery;
+        }
+
+        @Override
+        public void run() {
+            attempt(delivery);
+        }
+    }
+
+    /**
+     * A full queue makes a listener thread send the mail itself, which slows intake down. A retry
+     * is instead put back on the scheduler: run there, one slow send would hold up every other
+     * retry waiting behind it.
+     */
+    private void rejected(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (task instanceof Retry) {
+            if (!retryScheduler.isShutdown()) {
+                retryScheduler.schedule(() -> workers.execute(task), RETRY_REQUEUE_MS, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        task.run();
+    }
+
+    private MimeMessage toMimeMessage(Mail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(mail.to());
+        helper.setSubject(mail.subject());
+        helper.setText(mail.html(), true);
+        message.saveChanges();
+        return message;
+    }
+
+    private static boolean isPermanent(Exception e) {
+        if (e instanceof AddressException) {
+            return true;
+        }
+        return e instanceof SendFailedException failed
+                && failed.getInvalidAddresses() != null && failed.getInvalidAddresses().length > 0;
+    }
+
+    private long backoff(int attempts) {
+        double delay = initialBackoffMs * Math.pow(backoffMultiplier, attempts - 1);
+        return (long) Math.min(delay, maxBackoffMs);
+    }
+
+    private void deadLetter(Delivery delivery, Exception e, boolean permanent) {
+        log.warn("Giving up on mail to {} after {} attempts: {}", delivery.mail.to(), delivery.attempts, e.getMessage());
+        try {
+            DeadLetterMail dead = new DeadLetterMail();
+            dead.setRecipient(delivery.mail.to());
+            dead.setSubject(delivery.mail.subject());
+            // The event id is the reference for a confidential mail; its rendered body is not kept.
+            dead.setBody(delivery.mail.confidential() ? null : delivery.mail.html());
+            dead.setEventId(delivery.mail.eventId());
+            dead.setAttempts(delivery.attempts);
+            dead.setPermanent(permanent);
+            String error = String.valueOf(e.getMessage());
+            dead.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            deadLetterRepository.save(dead);
+            deadLettered.increment();
+        } catch (RuntimeException ex) {
+            log.error("Could not store dead letter for {}: {}", delivery.mail.to(), ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,28 +1,31 @@
 package com.example.notificationservice.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
-import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class MailService {
 
-        private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private static final Logger log = LoggerFactory.getLogger(MailService.class);
+
+    private final JavaMailSender mailSender;
+    private final MailTemplateRenderer templateRenderer;
+    private final MailDispatcher mailDispatcher;
     private final String username;
-    
-    public MailService(JavaMailSender mailSender, TemplateEngine templateEngine, 
+
+    public MailService(JavaMailSender mailSender, MailTemplateRenderer templateRenderer, MailDispatcher mailDispatcher,
                       @Value("${spring.mail.username}") String username) {
         this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+        this.templateRenderer = templateRenderer;
+        this.mailDispatcher = mailDispatcher;
         this.username = username;
     }
 
@@ -35,31 +38,34 @@ public class MailService {
             message.setText(text);
             mailSender.send(message);
         } catch (Exception e) {
-            
+            log.warn("Failed to send mail to {}: {}", to, e.getMessage());
         }
     }
 
+    public MailDispatcher.Mail render(String to, String subject, String templateName, Context context) {
+        return new MailDispatcher.Mail(to, subject, templateRenderer.render(templateName, context));
+    }
+
+    /** Renders the shared part once; see {@link MailTemplateRenderer#prepare}. */
+    public MailTemplateRenderer.Prepared prepare(String templateName, Context context, String... personalVariables) {
+        return templateRenderer.prepare(templateName, context, personalVariables);
+    }
+
+    /** Blocks until every mail is sent or dead-lettered; the sends themselves run in parallel. */
+    public MailDispatcher.Result send(List<MailDispatcher.Mail> mails) {
+        return mailDispatcher.send(mails);
+    }
+
     public void sendHtmlMail(String to, String subject, String templateName, Context context) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(username);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            
-            String htmlContent = templateEngine.process(templateName, context);
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            
-        }
+        send(List.of(render(to, subject, templateName, context)));
     }
 
     public void sendBulkHtmlMail(List<String> toEmails, String subject, String templateName, Context context) {
+        String html = templateRenderer.render(templateName, context);
+        List<MailDispatcher.Mail> mails = new ArrayList<>(toEmails.size());
         for (String email : toEmails) {
-            sendHtmlMail(email, subject, templateName, context);
+            mails.add(new MailDispatcher.Mail(email, subject, html));
         }
+        send(mails);
     }
 }
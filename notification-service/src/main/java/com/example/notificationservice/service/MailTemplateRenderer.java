@@ -0,0 +1,114 @@
+package com.example.notificationservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders mail templates. For mails that go to many recipients and differ only in a few
+ * variables, {@link #prepare} runs the template once with a marker in place of each personal
+ * variable and keeps the output as static segments; every recipient then costs a string join
+ * instead of a template pass. Parsed templates stay in the resolver cache, which is filled at
+ * startup so the first event does not pay for parsing.
+ */
+@Component
+public class MailTemplateRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private final TemplateEngine templateEngine;
+    private final List<String> warmUpTemplates;
+
+    public MailTemplateRenderer(TemplateEngine templateEngine,
+                                @Value("${mail.templates.warm-up:person-update,task-assignment,meeting-invitation,user-provisioned}") List<String> warmUpTemplates) {
+        this.templateEngine = templateEngine;
+        this.warmUpTemplates = warmUpTemplates;
+    }
+
+    /** A template rendered once for an event, with slots left for the personal variables. */
+    public static final class Prepared {
+        private final List<String> segments;
+        private final List<String> slots;
+        private final int length;
+
+        private Prepared(List<String> segments, List<String> slots) {
+            this.segments = segments;
+            this.slots = slots;
+            this.length = segments.stream().mapToInt(String::length).sum();
+        }
+
+        /** Values are escaped the same way {@code th:text} escapes them; missing ones render empty. */
+        public String render(Map<String, String> values) {
+            StringBuilder html = new StringBuilder(length + 64 * slots.size());
+            for (int i = 0; i < slots.size(); i++) {
+                html.append(segments.get(i));
+                String value = values.get(slots.get(i));
+                if (value != null) html.append(escape(value));
+            }
+            return html.append(segments.get(slots.size())).toString();
+        }
+    }
+
+    public String render(String templateName, Context context) {
+        return templateEngine.process(templateName, context);
+    }
+
+    /**
+     * The personal variables must only be printed with {@code th:text}; anything that branches
+     * on them or transforms them would see the marker instead of the value.
+     */
+    public Prepared prepare(String templateName, Context shared, String... personalVariables) {
+        String marker = "@@" + UUID.randomUUID().toString().replace("-", "") + ":";
+        Context context = new Context(shared.getLocale());
+        for (String name : shared.getVariableNames()) {
+            context.setVariable(name, shared.getVariable(name));
+        }
+        for (int i = 0; i < personalVariables.length; i++) {
+            context.setVariable(personalVariables[i], marker + i + "@@");
+        }
+        String html = templateEngine.process(templateName, context);
+
+        List<String> segments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        Matcher m = Pattern.compile(Pattern.quote(marker) + "(\\d+)@@").matcher(html);
+        int from = 0;
+        while (m.find()) {
+            segments.add(html.substring(from, m.start()));
+            slots.add(personalVariables[Integer.parseInt(m.group(1))]);
+            from = m.end();
+        }
+        segments.add(html.substring(from));
+        return new Prepared(segments, slots);
+    }
+
+    /** Parses every mail template once so the resolver cache is warm before the first event. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        for (String name : warmUpTemplates) {
+            try {
+                templateEngine.process(name, new Context());
+            } catch (RuntimeException e) {
+                log.warn("Could not warm up mail template {}: {}", name, e.getMessage());
+            }
+        }
+        log.info("Warmed up {} mail templates in {} ms", warmUpTemplates.size(), System.currentTimeMillis() - start);
+    }
+
+    private static String escape(String value) {
+        return HtmlEscape.escapeHtml4Xml(value);
+    }
+}
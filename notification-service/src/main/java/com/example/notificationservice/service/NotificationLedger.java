@@ -0,0 +1,153 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.model.NotificationLedgerEntry;
+import com.example.notificationservice.model.NotificationLedgerEntry.Status;
+import com.example.notificationservice.model.NotificationLedgerEntry.Type;
+import com.example.notificationservice.repository.NotificationLedgerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records every notification per event id and recipient. Senders {@link #claim} the recipients
+ * of an event before mailing, which inserts PENDING rows in one batch and leaves out recipients
+ * that were already handled, and then {@link #complete} them with the dispatch outcome, or
+ * {@link #release} them if handling failed.
+ */
+@Service
+public class NotificationLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationLedger.class);
+
+    private final NotificationLedgerRepository repository;
+    private final Duration pendingTimeout;
+
+    public NotificationLedger(NotificationLedgerRepository repository,
+                              @Value("${notification.ledger.pending-timeout:PT10M}") Duration pendingTimeout) {
+        this.repository = repository;
+        this.pendingTimeout = pendingTimeout;
+    }
+
+    public record TypeStats(Type type, long sent, long deadLettered, long pending, long suppressed, double sentPerMinute) {
+    }
+
+    /**
+     * Returns the recipients that still need the notification, in the given order. A PENDING
+     * claim older than {@code pending-timeout} is taken over, since whoever made it most likely
+     * stopped before sending.
+     */
+    @Transactional
+    public List<String> claim(String eventId, Type type, Collection<String> recipients) {
+        if (recipients.isEmpty()) {
+            return List.of();
+        }
+        Collection<String> unique = new LinkedHashSet<>(recipients);
+        Map<String, NotificationLedgerEntry> existing = new HashMap<>();
+        for (NotificationLedgerEntry entry : repository.findByEventIdAndRecipientIn(eventId, unique)) {
+            existing.put(entry.getRecipient(), entry);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime stale = now.minus(pendingTimeout);
+        List<String> claimed = new ArrayList<>(unique.size());
+        List<NotificationLedgerEntry> created = new ArrayList<>();
+        for (String recipient : unique) {
+            NotificationLedgerEntry entry = existing.get(recipient);
+            if (entry == null) {
+                entry = new NotificationLedgerEntry();
+                entry.setEventId(eventId);
+                entry.setType(type);
+                entry.setRecipient(recipient);
+                entry.setRecordedAt(now);
+                created.add(entry);
+                claimed.add(recipient);
+            } else if (entry.getStatus() == Status.PENDING && entry.getRecordedAt().isBefore(stale)) {
+                entry.setRecordedAt(now);
+                claimed.add(recipient);
+            }
+        }
+        repository.saveAll(created);
+        if (claimed.size() < unique.size()) {
+            log.info("Event {} already notified {} of {} recipients, skipping them",
+                    eventId, unique.size() - claimed.size(), unique.size());
+        }
+        return claimed;
+    }
+
+    /**
+     * Gives up claims whose notification failed before it was completed, so the redelivered
+     * event claims and sends them again instead of skipping them as already handled.
+     */
+    @Transactional
+    public void release(String eventId, Collection<String> recipients) {
+        if (!recipients.isEmpty()) {
+            repository.deletePending(eventId, recipients);
+        }
+    }
+
+    @Transactional
+    public void complete(String eventId, List<MailDispatcher.Mail> mails, List<Boolean> delivered) {
+        List<String> sent = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < mails.size(); i++) {
+            (delivered.get(i) ? sent : failed).add(mails.get(i).to());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!sent.isEmpty()) repository.complete(eventId, sent, Status.SENT, now);
+        if (!failed.isEmpty()) repository.complete(eventId, failed, Status.DEAD_LETTERED, now);
+    }
+
+    /** For a digest that covered several events. */
+    @Transactional
+    public void completeEvents(Collection<String> eventIds, Status status) {
+        repository.completeEvents(eventIds, status, LocalDateTime.now());
+    }
+
+    /** A dead-lettered mail went out after all. */
+    @Transactional
+    public void markSent(String eventId, String recipient) {
+        repository.complete(eventId, List.of(recipient), Status.SENT, LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationLedgerEntry> forEvent(String eventId) {
+        return repository.findByEventIdOrderByIdAsc(eventId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationLedgerEntry> forRecipient(String recipient, int limit) {
+        return repository.findByRecipientOrderByIdDesc(recipient, PageRequest.of(0, limit));
+    }
+
+    /** Counts per type over the last {@code window}; throughput is mails sent per minute of that window. */
+    @Transactional(readOnly = true)
+    public List<TypeStats> stats(Duration window) {
+        Map<Type, long[]> counts = new EnumMap<>(Type.class);
+        for (Object[] row : repository.countByTypeAndStatus(LocalDateTime.now().minus(window))) {
+            long[] c = counts.computeIfAbsent((Type) row[0], t -> new long[Status.values().length]);
+            c[((Status) row[1]).ordinal()] = (Long) row[2];
+        }
+        double minutes = Math.max(1, window.toSeconds()) / 60.0;
+        List<TypeStats> stats = new ArrayList<>();
+        for (Map.Entry<Type, long[]> e : counts.entrySet()) {
+            long[] c = e.getValue();
+            long sent = c[Status.SENT.ordinal()];
+            stats.add(new TypeStats(e.getKey(), sent, c[Status.DEAD_LETTERED.ordinal()], c[Status.PENDING.ordinal()],
+                    c[Status.SUPPRESSED.ordinal()],
+                    Math.round(sent / minutes * 100) / 100.0));
+        }
+        return stats;
+    }
+}
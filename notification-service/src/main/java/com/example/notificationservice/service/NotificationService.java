@@ -4,12 +4,14 @@ import com.example.notificationservice.event.MeetingInvitationEvent;
 import com.example.notificationservice.event.PersonUpdateEvent;
 import com.example.notificationservice.event.TaskAssignmentEvent;
 import com.example.notificationservice.event.UserProvisionedEvent;
+import com.example.notificationservice.model.NotificationLedgerEntry.Type;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -17,14 +19,74 @@ import java.util.ArrayList;
 public class NotificationService {
 
     private final MailService mailService;
+    private final NotificationLedger notificationLedger;
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
-    public NotificationService(MailService mailService) {
+    public NotificationService(MailService mailService, NotificationLedger notificationLedger) {
         this.mailService = mailService;
+        this.notificationLedger = notificationLedger;
     }
 
-    public void handlePersonUpdate(PersonUpdateEvent event) {
-        log.info("Sending person update email to {}", event.getPersonEmail());
+    public void handlePersonUpdate(PersonUpdateEvent event, String eventId) {
+        if (!claim(eventId, Type.PERSON_UPDATE, event.getPersonEmail())) {
+            return;
+        }
+        afterClaim(eventId, List.of(event.getPersonEmail()), () -> {
+            log.info("Sending person update email to {}", event.getPersonEmail());
+            deliver(eventId, List.of(renderPersonUpdate(event)));
+            log.debug("Person update email sent to {}", event.getPersonEmail());
+        });
+    }
+
+    /**
+     * Sends one mail per event as a single parallel batch, e.g. the digests of a coalescing window.
+     * The caller claimed the source events and records the outcome from the returned result.
+     */
+    public MailDispatcher.Result handlePersonUpdates(List<PersonUpdateEvent> events) {
+        List<MailDispatcher.Mail> mails = new ArrayList<>(events.size());
+        for (PersonUpdateEvent event : events) {
+            mails.add(renderPersonUpdate(event));
+        }
+        MailDispatcher.Result result = mailService.send(mails);
+        log.info("Person update emails sent {}, dead-lettered {}", result.sent(), result.deadLettered());
+        return result;
+    }
+
+    /** False when the recipient already has this notification, or there is nobody to send it to. */
+    private boolean claim(String eventId, Type type, String recipient) {
+        if (recipient == null || recipient.isBlank()) {
+            log.warn("Event {} of type {} has no recipient", eventId, type);
+            return false;
+        }
+        return !notificationLedger.claim(eventId, type, List.of(recipient)).isEmpty();
+    }
+
+    /**
+     * Runs what follows a claim. If it fails, the claim is released before the exception reaches
+     * the listener, so the retried message sends the notification instead of finding it claimed.
+     * A failure after the mail went out can send it twice, which beats losing it.
+     */
+    private void afterClaim(String eventId, Collection<String> recipients, Runnable send) {
+        try {
+            send.run();
+        } catch (RuntimeException e) {
+            try {
+                notificationLedger.release(eventId, recipients);
+            } catch (RuntimeException releaseFailure) {
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+    }
+
+    private MailDispatcher.Result deliver(String eventId, List<MailDispatcher.Mail> mails) {
+        List<MailDispatcher.Mail> tagged = mails.stream().map(m -> m.withEventId(eventId)).toList();
+        MailDispatcher.Result result = mailService.send(tagged);
+        notificationLedger.complete(eventId, tagged, result.delivered());
+        return result;
+    }
+
+    private MailDispatcher.Mail renderPersonUpdate(PersonUpdateEvent event) {
         Context context = new Context();
         context.setVariable("personName", event.getPersonName());
         java.util.List<java.util.Map<String, String>> prettyChanges = new java.util.ArrayList<>();
@@ -42,8 +104,7 @@ public class NotificationService {
         context.setVariable("updatedAt", event.getUpdatedAt().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")));
 
         String subject = "Profile Update Notification";
-        mailService.sendHtmlMail(event.getPersonEmail(), subject, "person-update", context);
-        log.debug("Person update email sent to {}", event.getPersonEmail());
+        return mailService.render(event.getPersonEmail(), subject, "person-update", context);
     }
 
     private String toPrettyFieldName(String key) {
@@ -91,7 +152,14 @@ public class NotificationService {
         return raw;
     }
 
-    public void handleTaskAssignment(TaskAssignmentEvent event) {
+    public void handleTaskAssignment(TaskAssignmentEvent event, String eventId) {
+        if (!claim(eventId, Type.TASK_ASSIGNMENT, event.getAssigneeEmail())) {
+            return;
+        }
+        afterClaim(eventId, List.of(event.getAssigneeEmail()), () -> sendTaskAssignment(event, eventId));
+    }
+
+    private void sendTaskAssignment(TaskAssignmentEvent event, String eventId) {
         log.info("Sending task assignment email to {}", event.getAssigneeEmail());
         Context context = new Context();
         context.setVariable("assigneeName", event.getAssigneeName());
@@ -104,11 +172,11 @@ public class NotificationService {
         
 
         String subject = "New Task Assignment: " + event.getTaskTitle();
-        mailService.sendHtmlMail(event.getAssigneeEmail(), subject, "task-assignment", context);
+        deliver(eventId, List.of(mailService.render(event.getAssigneeEmail(), subject, "task-assignment", context)));
         log.debug("Task assignment email sent to {}", event.getAssigneeEmail());
     }
 
-    public void handleMeetingInvitation(MeetingInvitationEvent event) {
+    public void handleMeetingInvitation(MeetingInvitationEvent event, String eventId) {
         log.info("Sending meeting invitation emails for {}", event.getMeetingTitle());
         Context context = new Context();
         context.setVariable("meetingTitle", event.getMeetingTitle());
@@ -132,27 +200,41 @@ public class NotificationService {
             }
         }
 
-        java.util.Set<String> uniqueEmails = new java.util.LinkedHashSet<>(allEmails);
-        int sentCount = 0;
+        List<String> uniqueEmails = notificationLedger.claim(eventId, Type.MEETING_INVITATION, allEmails);
+        if (uniqueEmails.isEmpty()) {
+            return;
+        }
+        afterClaim(eventId, uniqueEmails, () -> sendMeetingInvitation(event, eventId, context, subject, uniqueEmails));
+    }
+
+    private void sendMeetingInvitation(MeetingInvitationEvent event, String eventId, Context context, String subject,
+                                       List<String> uniqueEmails) {
+        MailTemplateRenderer.Prepared invitation = mailService.prepare("meeting-invitation", context, "recipientName");
+        List<MailDispatcher.Mail> mails = new ArrayList<>(uniqueEmails.size());
         for (String to : uniqueEmails) {
             String recipientName = event.getParticipantEmailToName() != null ? event.getParticipantEmailToName().getOrDefault(to, "Participant") : "Participant";
-            Context personal = new Context();
-            personal.setVariables(context.getVariableNames().stream().collect(java.util.stream.Collectors.toMap(n -> n, context::getVariable)));
-            personal.setVariable("recipientName", recipientName);
-            mailService.sendHtmlMail(to, subject, "meeting-invitation", personal);
-            sentCount++;
+            mails.add(new MailDispatcher.Mail(to, subject, invitation.render(java.util.Collections.singletonMap("recipientName", recipientName))));
+        }
+        MailDispatcher.Result result = deliver(eventId, mails);
+        log.debug("Meeting invitation emails sent count {}, dead-lettered {}", result.sent(), result.deadLettered());
+    }
+
+    public void handleUserProvisioned(UserProvisionedEvent event, String eventId) {
+        if (!claim(eventId, Type.USER_PROVISIONED, event.getEmail())) {
+            return;
         }
-        log.debug("Meeting invitation emails sent count {}", sentCount);
+        afterClaim(eventId, List.of(event.getEmail()), () -> sendUserProvisioned(event, eventId));
     }
 
-    public void handleUserProvisioned(UserProvisionedEvent event) {
+    private void sendUserProvisioned(UserProvisionedEvent event, String eventId) {
         log.info("Sending user provisioned email to {}", event.getEmail());
         Context context = new Context();
         String recipientName = (event.getFullName() == null || event.getFullName().isBlank()) ? "User" : event.getFullName();
         context.setVariable("recipientName", recipientName);
         context.setVariable("password", event.getPassword());
         String subject = "Your Account Has Been Created";
-        mailService.sendHtmlMail(event.getEmail(), subject, "user-provisioned", context);
+        // The mail carries the initial password, so a dead letter keeps only the event reference.
+        deliver(eventId, List.of(mailService.render(event.getEmail(), subject, "user-provisioned", context).asConfidential()));
         log.debug("User provisioned email sent to {}", event.getEmail());
     }
 }
@@ -0,0 +1,233 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.event.PersonUpdateEvent;
+import com.example.notificationservice.event.PersonUpdateEvent.ChangeDetail;
+import com.example.notificationservice.model.NotificationLedgerEntry.Status;
+import com.example.notificationservice.model.NotificationLedgerEntry.Type;
+import com.example.notificationservice.model.PendingPersonUpdate;
+import com.example.notificationservice.repository.PendingPersonUpdateRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Buffers person updates per person for a window that starts with the first update, then sends
+ * a single digest. Changes to the same field collapse to the oldest old value and the newest new
+ * value by {@code updatedAt}, so concurrent consumers merging out of order still agree, and
+ * fields that ended up where they started are left out. The buffer is a table, so an update is
+ * safe once its message has been acked. Each event is claimed in the {@link NotificationLedger}
+ * as it is merged, so a redelivered event is not merged, or mailed, a second time.
+ */
+@Service
+public class PersonUpdateCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonUpdateCoalescer.class);
+    private static final TypeReference<List<BufferedChange>> CHANGES = new TypeReference<>() {};
+
+    /** A field's change over the window; {@code oldValue} is from {@code firstAt}, {@code newValue} from {@code lastAt}. */
+    private record BufferedChange(String fieldName, String oldValue, String newValue, LocalDateTime firstAt, LocalDateTime lastAt) {
+    }
+
+    private final PendingPersonUpdateRepository repository;
+    private final NotificationService notificationService;
+    private final NotificationLedger notificationLedger;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration window;
+    private final int batchSize;
+
+    public PersonUpdateCoalescer(PendingPersonUpdateRepository repository,
+                                 NotificationService notificationService,
+                                 NotificationLedger notificationLedger,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${notification.coalescing.person-update.window:PT1M}") Duration window,
+                                 @Value("${notification.coalescing.person-update.batch-size:200}") int batchSize) {
+        this.repository = repository;
+        this.notificationService = notificationService;
+        this.notificationLedger = notificationLedger;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.window = window;
+        this.batchSize = batchSize;
+    }
+
+    /** A zero window turns coalescing off and sends the update straight away. */
+    public void add(PersonUpdateEvent event, String eventId) {
+        if (window.isZero() || event.getPersonId() == null || event.getPersonEmail() == null) {
+            notificationService.handlePersonUpdate(event, eventId);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> merge(event, eventId));
+    }
+
+    private void merge(PersonUpdateEvent event, String eventId) {
+        if (notificationLedger.claim(eventId, Type.PERSON_UPDATE, List.of(event.getPersonEmail())).isEmpty()) {
+            return;
+        }
+        PendingPersonUpdate pending = repository.findForUpdate(event.getPersonId()).orElse(null);
+        Map<String, BufferedChange> changes = new LinkedHashMap<>();
+        if (pending == null) {
+            pending = new PendingPersonUpdate();
+            pending.setPersonId(event.getPersonId());
+            pending.setDueAt(LocalDateTime.now().plus(window));
+        } else {
+            for (BufferedChange c : readChanges(pending.getChanges())) {
+                changes.put(c.fieldName(), c);
+            }
+        }
+        LocalDateTime at = event.getUpdatedAt() != null ? event.getUpdatedAt() : LocalDateTime.now();
+        boolean newest = pending.getLastUpdatedAt() == null || !at.isBefore(pending.getLastUpdatedAt());
+        if (event.getChanges() != null) {
+            for (ChangeDetail c : event.getChanges()) {
+                BufferedChange known = changes.get(c.getFieldName());
+                if (known == null) {
+                    changes.put(c.getFieldName(), new BufferedChange(c.getFieldName(), c.getOldValue(), c.getNewValue(), at, at));
+                    continue;
+                }
+                boolean earlier = at.isBefore(known.firstAt());
+                boolean later = !at.isBefore(known.lastAt());
+                changes.put(c.getFieldName(), new BufferedChange(c.getFieldName(),
+                        earlier ? c.getOldValue() : known.oldValue(),
+                        later ? c.getNewValue() : known.newValue(),
+                        earlier ? at : known.firstAt(),
+                        later ? at : known.lastAt()));
+            }
+        }
+        pending.setChanges(writeChanges(changes.values()));
+        if (newest) {
+            pending.setPersonEmail(event.getPersonEmail());
+            pending.setPersonName(event.getPersonName());
+            pending.setLastUpdatedAt(at);
+        }
+        pending.setUpdatedByNames(addName(pending.getUpdatedByNames(), event.getUpdatedByName()));
+        pending.setEventIds(pending.getEventIds() == null ? eventId : pending.getEventIds() + "," + eventId);
+        pending.setEventCount(pending.getEventCount() + 1);
+        repository.save(pending);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.coalescing.person-update.poll-interval-ms:5000}")
+    public void flushDue() {
+        List<Long> due;
+        while (!(due = repository.findDueIds(LocalDateTime.now(), PageRequest.of(0, batchSize))).isEmpty()) {
+            send(due);
+            if (due.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /** Sends whatever is still buffered, due or not. */
+    @PreDestroy
+    public void flushAll() {
+        List<Long> pending = repository.findAll().stream().map(PendingPersonUpdate::getPersonId).toList();
+        if (!pending.isEmpty()) {
+            log.info("Flushing {} buffered person updates on shutdown", pending.size());
+            send(pending);
+        }
+    }
+
+    private void send(List<Long> personIds) {
+        List<PersonUpdateEvent> digests = new ArrayList<>(personIds.size());
+        List<List<String>> digestEventIds = new ArrayList<>(personIds.size());
+        int events = 0;
+        for (Long personId : personIds) {
+            PendingPersonUpdate claimed = transactionTemplate.execute(status -> repository.findForUpdate(personId)
+                    .map(pending -> {
+                        repository.delete(pending);
+                        return pending;
+                    })
+                    .orElse(null));
+            if (claimed == null) {
+                continue;
+            }
+            events += claimed.getEventCount();
+            List<String> eventIds = List.of(claimed.getEventIds().split(","));
+            PersonUpdateEvent digest = toDigest(claimed);
+            if (digest.getChanges().isEmpty()) {
+                log.debug("Person {} updates cancelled each other out, nothing to send", personId);
+                notificationLedger.completeEvents(eventIds, Status.SUPPRESSED);
+                continue;
+            }
+            digests.add(digest);
+            digestEventIds.add(eventIds);
+        }
+        if (digests.isEmpty()) {
+            return;
+        }
+        try {
+            MailDispatcher.Result result = notificationService.handlePersonUpdates(digests);
+            for (int i = 0; i < digests.size(); i++) {
+                notificationLedger.completeEvents(digestEventIds.get(i),
+                        result.delivered().get(i) ? Status.SENT : Status.DEAD_LETTERED);
+            }
+            log.info("Coalesced {} person updates into {} emails", events, digests.size());
+        } catch (RuntimeException e) {
+            log.error("Could not send {} person update digests: {}", digests.size(), e.getMessage());
+        }
+    }
+
+    private PersonUpdateEvent toDigest(PendingPersonUpdate pending) {
+        List<ChangeDetail> changes = new ArrayList<>();
+        for (BufferedChange c : readChanges(pending.getChanges())) {
+            if (!Objects.equals(c.oldValue(), c.newValue())) {
+                changes.add(new ChangeDetail(c.fieldName(), c.oldValue(), c.newValue()));
+            }
+        }
+        PersonUpdateEvent digest = new PersonUpdateEvent();
+        digest.setPersonId(pending.getPersonId());
+        digest.setPersonEmail(pending.getPersonEmail());
+        digest.setPersonName(pending.getPersonName());
+        digest.setUpdatedByName(pending.getUpdatedByNames());
+        digest.setUpdatedAt(pending.getLastUpdatedAt() != null ? pending.getLastUpdatedAt() : LocalDateTime.now());
+        digest.setChanges(changes);
+        return digest;
+    }
+
+    private static String addName(String names, String name) {
+        if (name == null || name.isBlank()) {
+            return names;
+        }
+        if (names == null || names.isBlank()) {
+            return name;
+        }
+        for (String existing : names.split(", ")) {
+            if (existing.equals(name)) return names;
+        }
+        return names + ", " + name;
+    }
+
+    private List<BufferedChange> readChanges(String json) {
+        try {
+            return objectMapper.readValue(json, CHANGES);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable buffered changes", e);
+        }
+    }
+
+    private String writeChanges(Collection<BufferedChange> changes) {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize changes", e);
+        }
+    }
+}
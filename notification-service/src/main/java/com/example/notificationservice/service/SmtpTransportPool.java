@@ -0,0 +1,97 @@
+package com.example.notificationservice.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps connected SMTP transports around between sends instead of paying for a TCP connect,
+ * TLS handshake and AUTH per mail the way {@link JavaMailSenderImpl#send} does. A transport is
+ * retired after {@code max-messages-per-connection} sends or when the server has dropped it.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingQueue<PooledTransport> idle;
+    private final int maxMessagesPerConnection;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${mail.dispatch.threads:4}") int poolSize,
+                             @Value("${mail.dispatch.max-messages-per-connection:100}") int maxMessagesPerConnection) {
+        this.mailSender = mailSender;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+    }
+
+    public static final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport transport() { return transport; }
+    }
+
+    /** Hands out an idle connected transport, or connects a new one if none is idle. */
+    public PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            if (pooled.transport.isConnected()) {
+                return pooled;
+            }
+            close(pooled);
+        }
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) password = null;
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    /** Returns a transport after a successful send; it is closed if the pool is full or it is worn out. */
+    public void release(PooledTransport pooled) {
+        pooled.sent++;
+        if (pooled.sent >= maxMessagesPerConnection || !idle.offer(pooled)) {
+            close(pooled);
+        }
+    }
+
+    /** Drops a transport whose send failed; its connection state is unknown. */
+    public void invalidate(PooledTransport pooled) {
+        close(pooled);
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            close(pooled);
+        }
+    }
+
+    private static void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Could not close SMTP connection: {}", e.getMessage());
+        }
+    }
+}
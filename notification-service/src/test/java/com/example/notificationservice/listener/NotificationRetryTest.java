@@ -0,0 +1,173 @@
+package com.example.notificationservice.listener;
+
+import com.example.notificationservice.event.TaskAssignmentEvent;
+import com.example.notificationservice.model.NotificationLedgerEntry;
+import com.example.notificationservice.repository.NotificationLedgerRepository;
+import com.example.notificationservice.service.MailService;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.rabbitmq.client.Channel;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.aopalliance.aop.Advice;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the task assignment listener through the retry advice of its container factory, as the
+ * container would, against a GreenMail server. The broker itself is not needed: the listeners do
+ * not start and the rejection that routes a message to its DLQ is asserted directly.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.mail.username=noreply@example.com",
+        "spring.mail.password=secret",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "mail.dispatch.max-attempts=1",
+        "notification.retry.max-attempts=3",
+        "notification.retry.initial-interval-ms=10",
+        "notification.retry.max-interval-ms=10"
+})
+class NotificationRetryTest {
+
+    private static final GreenMail greenMail = new GreenMail(new ServerSetup(freePort(), "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+
+    @Autowired
+    private NotificationEventListener listener;
+
+    @Autowired
+    @Qualifier("taskAssignmentListenerFactory")
+    private SimpleRabbitListenerContainerFactory factory;
+
+    @Autowired
+    private NotificationLedgerRepository ledgerRepository;
+
+    @SpyBean
+    private MailService mailService;
+
+    @DynamicPropertySource
+    static void mail(DynamicPropertyRegistry registry) {
+        greenMail.start();
+        greenMail.setUser("noreply@example.com", "secret");
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", () -> greenMail.getSmtp().getPort());
+    }
+
+    @AfterAll
+    static void stopMail() {
+        greenMail.stop();
+    }
+
+    @Test
+    void handlerFailingAfterTheClaimIsRetriedAndSendsTheMail() throws Exception {
+        String eventId = UUID.randomUUID().toString();
+        TaskAssignmentEvent event = event("retried@example.com", LocalDateTime.now());
+        doThrow(new IllegalStateException("template engine hiccup"))
+                .doCallRealMethod()
+                .when(mailService).render(eq("retried@example.com"), anyString(), anyString(), any());
+        Channel channel = mock(Channel.class);
+
+        deliver(event, eventId, channel, new AtomicInteger());
+
+        verify(channel).basicAck(1L, false);
+        assertThat(receivedBy("retried@example.com")).isEqualTo(1);
+        assertThat(ledgerRepository.findByEventIdOrderByIdAsc(eventId))
+                .extracting(NotificationLedgerEntry::getStatus)
+                .containsExactly(NotificationLedgerEntry.Status.SENT);
+    }
+
+    @Test
+    void handlerThatKeepsFailingIsDeadLetteredWithoutLeavingAClaim() throws Exception {
+        String eventId = UUID.randomUUID().toString();
+        TaskAssignmentEvent event = event("broken@example.com", null);
+        Channel channel = mock(Channel.class);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> deliver(event, eventId, channel, attempts))
+                .isInstanceOf(AmqpRejectAndDontRequeueException.class);
+
+        assertThat(attempts).hasValue(3);
+        verify(mailService, never()).send(any());
+        verify(channel, never()).basicAck(anyLong(), eq(false));
+        assertThat(ledgerRepository.findByEventIdOrderByIdAsc(eventId)).isEmpty();
+    }
+
+    /** Mirrors the container: the advice chain wraps the invocation of the listener with the channel and message. */
+    private void deliver(TaskAssignmentEvent event, String eventId, Channel channel, AtomicInteger attempts) throws Exception {
+        Delivery target = (ch, message) -> {
+            attempts.incrementAndGet();
+            listener.handleTaskAssignment(event, ch, 1L, null, eventId);
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(Delivery.class);
+        for (Advice advice : factory.getAdviceChain()) {
+            proxyFactory.addAdvice(advice);
+        }
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId(eventId);
+        ((Delivery) proxyFactory.getProxy()).invoke(channel, new Message(new byte[0], properties));
+    }
+
+    private static long receivedBy(String recipient) throws MessagingException {
+        long count = 0;
+        for (MimeMessage mail : greenMail.getReceivedMessages()) {
+            if (recipient.equals(mail.getAllRecipients()[0].toString())) count++;
+        }
+        return count;
+    }
+
+    private static TaskAssignmentEvent event(String assignee, LocalDateTime assignedAt) {
+        TaskAssignmentEvent event = new TaskAssignmentEvent();
+        event.setTaskId(1L);
+        event.setTaskTitle("Quarterly report");
+        event.setTaskDescription("Draft the report");
+        event.setPriority("HIGH");
+        event.setAssigneeEmail(assignee);
+        event.setAssigneeName("Assignee");
+        event.setAssignedByName("Manager");
+        event.setDepartmentName("Finance");
+        event.setAssignedAt(assignedAt);
+        return event;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    interface Delivery {
+        void invoke(Channel channel, Message message) throws Exception;
+    }
+}
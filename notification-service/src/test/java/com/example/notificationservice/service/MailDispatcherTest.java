@@ -0,0 +1,168 @@
+package com.example.notificationservice.service;
+
+import com.example.notificationservice.model.DeadLetterMail;
+import com.example.notificationservice.repository.DeadLetterMailRepository;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/** Sends through a real SMTP server, GreenMail, started and stopped per test to produce failures. */
+class MailDispatcherTest {
+
+    private int port;
+    private GreenMail greenMail;
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool transportPool;
+    private DeadLetterMailRepository deadLetterRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private MailDispatcher dispatcher;
+    private final Set<String> borrowingThreads = ConcurrentHashMap.newKeySet();
+    private final Map<Object, Boolean> connections = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        mailSender.setProtocol("smtp");
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+        deadLetterRepository = mock(DeadLetterMailRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) dispatcher.shutdown();
+        if (greenMail != null) greenMail.stop();
+    }
+
+    @Test
+    void sendsEveryMailOverPooledConnections() throws Exception {
+        startServer();
+        dispatcher = dispatcher(4, 100, 3, 100, 1.0);
+
+        MailDispatcher.Result result = dispatcher.send(mails(30));
+
+        assertThat(result.sent()).isEqualTo(30);
+        assertThat(greenMail.getReceivedMessages()).hasSize(30);
+        assertThat(connections).hasSizeLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void retriesUntilTheServerAcceptsTheMail() throws Exception {
+        dispatcher = dispatcher(2, 100, 20, 100, 1.0);
+
+        CompletableFuture<MailDispatcher.Result> pending = dispatcher.dispatch(mails(3));
+        Thread.sleep(300);
+        startServer();
+
+        MailDispatcher.Result result = pending.get(15, TimeUnit.SECONDS);
+        assertThat(result.sent()).isEqualTo(3);
+        assertThat(greenMail.getReceivedMessages()).hasSize(3);
+        assertThat(meterRegistry.counter("mail.dispatch.retried").count()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void retriesAreNotSentOnTheSchedulerThreadWhenTheQueueIsFull() throws Exception {
+        dispatcher = dispatcher(1, 1, 50, 100, 1.0);
+
+        CompletableFuture<MailDispatcher.Result> pending = dispatcher.dispatch(mails(8));
+        Thread.sleep(300);
+        startServer();
+
+        assertThat(pending.get(30, TimeUnit.SECONDS).sent()).isEqualTo(8);
+        assertThat(borrowingThreads).doesNotContain("mail-retry");
+    }
+
+    @Test
+    void deadLettersAfterTheLastAttemptWithoutConfidentialBodies() throws Exception {
+        dispatcher = dispatcher(2, 100, 2, 10, 1.0);
+        List<MailDispatcher.Mail> mails = List.of(
+                new MailDispatcher.Mail("plain@example.com", "Plain", "<p>plain</p>").withEventId("event-1"),
+                new MailDispatcher.Mail("secret@example.com", "Secret", "<p>password</p>").withEventId("event-2").asConfidential());
+
+        MailDispatcher.Result result = dispatcher.send(mails);
+
+        assertThat(result.deadLettered()).isEqualTo(2);
+        ArgumentCaptor<DeadLetterMail> saved = ArgumentCaptor.forClass(DeadLetterMail.class);
+        verify(deadLetterRepository, times(2)).save(saved.capture());
+        DeadLetterMail plain = byRecipient(saved.getAllValues(), "plain@example.com");
+        DeadLetterMail secret = byRecipient(saved.getAllValues(), "secret@example.com");
+        assertThat(plain.getAttempts()).isEqualTo(2);
+        assertThat(plain.getBody()).isEqualTo("<p>plain</p>");
+        assertThat(secret.getEventId()).isEqualTo("event-2");
+        assertThat(secret.getBody()).isNull();
+        assertThat(secret.isRedeliverable()).isFalse();
+    }
+
+    @Test
+    void rejectedAddressIsDeadLetteredWithoutRetrying() throws Exception {
+        startServer();
+        dispatcher = dispatcher(2, 100, 5, 10, 1.0);
+
+        MailDispatcher.Result result = dispatcher.send(List.of(new MailDispatcher.Mail("not an address", "Hi", "<p>hi</p>")));
+
+        assertThat(result.deadLettered()).isEqualTo(1);
+        ArgumentCaptor<DeadLetterMail> saved = ArgumentCaptor.forClass(DeadLetterMail.class);
+        verify(deadLetterRepository).save(saved.capture());
+        assertThat(saved.getValue().isPermanent()).isTrue();
+        assertThat(saved.getValue().getAttempts()).isEqualTo(1);
+    }
+
+    private void startServer() {
+        greenMail = new GreenMail(new ServerSetup(port, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+        greenMail.start();
+    }
+
+    private MailDispatcher dispatcher(int threads, int queueCapacity, int maxAttempts, long backoffMs, double multiplier)
+            throws Exception {
+        transportPool = spy(new SmtpTransportPool(mailSender, threads, 100));
+        doAnswer(invocation -> {
+            borrowingThreads.add(Thread.currentThread().getName());
+            SmtpTransportPool.PooledTransport pooled = (SmtpTransportPool.PooledTransport) invocation.callRealMethod();
+            connections.put(pooled.transport(), Boolean.TRUE);
+            return pooled;
+        }).when(transportPool).borrow();
+        return new MailDispatcher(mailSender, transportPool, deadLetterRepository, meterRegistry, "noreply@example.com",
+                threads, queueCapacity, maxAttempts, backoffMs, multiplier, backoffMs);
+    }
+
+    private static List<MailDispatcher.Mail> mails(int count) {
+        List<MailDispatcher.Mail> mails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mails.add(new MailDispatcher.Mail("user" + i + "@example.com", "Subject " + i, "<p>Body " + i + "</p>"));
+        }
+        return mails;
+    }
+
+    private static DeadLetterMail byRecipient(List<DeadLetterMail> dead, String recipient) {
+        return dead.stream().filter(d -> recipient.equals(d.getRecipient())).findFirst().orElseThrow();
+    }
+}
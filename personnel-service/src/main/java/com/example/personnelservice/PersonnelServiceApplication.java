@@ -3,9 +3,11 @@ package com.example.personnelservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class PersonnelServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(PersonnelServiceApplication.class, args);
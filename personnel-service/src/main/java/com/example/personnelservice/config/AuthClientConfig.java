@@ -0,0 +1,64 @@
+package com.example.personnelservice.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+@Configuration
+public class AuthClientConfig {
+
+    @Bean
+    public WebClient authWebClient(WebClient.Builder webClientBuilder,
+                                   @Value("${auth-service.url:http://localhost:8082}") String authServiceUrl,
+                                   @Value("${auth-service.client.connect-timeout:PT2S}") Duration connectTimeout,
+                                   @Value("${auth-service.client.read-timeout:PT5S}") Duration readTimeout,
+                                   @Value("${auth-service.client.max-connections:50}") int maxConnections,
+                                   @Value("${auth-service.client.pending-acquire-timeout:PT2S}") Duration pendingAcquireTimeout) {
+        ConnectionProvider pool = ConnectionProvider.builder("auth-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return webClientBuilder.clone()
+                .baseUrl(authServiceUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Bean
+    public CircuitBreaker authCircuitBreaker(@Value("${auth-service.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                                             @Value("${auth-service.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                                             @Value("${auth-service.circuit-breaker.open-duration:PT30S}") Duration openDuration) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(10, slidingWindowSize))
+                .waitDurationInOpenState(openDuration)
+                .recordException(AuthClientConfig::isTransient)
+                .build();
+        return CircuitBreaker.of("auth-service", config);
+    }
+
+    /** Connection failures, timeouts, 5xx and 429 (auth-service shedding load) are worth retrying; other 4xx answers are final. */
+    public static boolean isTransient(Throwable t) {
+        if (t instanceof WebClientResponseException e) {
+            return e.getStatusCode().is5xxServerError() || e.getStatusCode().value() == 429;
+        }
+        return t instanceof WebClientRequestException || t instanceof TimeoutException;
+    }
+}
@@ -149,6 +149,7 @@ public class DataInitializer {
                 LocalDate.of(2021, 2, 14), LocalDate.of(1993, 9, 18), "Female", "New York, NY", 
                 "https://randomuser.me/api/portraits/women/17.jpg", nameToDept, nameToTitle, 50000));
 
+            List<Map<String, Object>> provisioning = new ArrayList<>();
             for (Person p : people) {
                 List<String> roles = new ArrayList<>();
                 boolean isHead = p.getTitle() != null && p.getTitle().getName().toLowerCase().contains("head");
@@ -156,8 +157,14 @@ public class DataInitializer {
                 if (isHr) roles.add("HR");
                 if (isHead) roles.add("HEAD");
                 if (roles.isEmpty()) roles.add("EMPLOYEE");
-                authService.provisionWithPasswordNoEmail(p.getEmail(), roles, "123456");
+                Map<String, Object> user = new HashMap<>();
+                user.put("email", p.getEmail());
+                user.put("roles", roles);
+                user.put("password", "123456");
+                user.put("suppressEmail", true);
+                provisioning.add(user);
             }
+            authService.provisionBatch(provisioning).join();
             
             List<Person> savedPeople = personRepository.saveAll(people);
 
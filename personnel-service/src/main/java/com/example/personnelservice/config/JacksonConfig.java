@@ -0,0 +1,20 @@
+package com.example.personnelservice.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Associations are lazy and open-in-view is off, so every endpoint fetches what it renders
+     * through an entity graph. This module serializes initialized proxies as their entity and
+     * anything not fetched as null instead of failing the response.
+     */
+    @Bean
+    public Module hibernateModule() {
+        return new Hibernate6Module();
+    }
+}
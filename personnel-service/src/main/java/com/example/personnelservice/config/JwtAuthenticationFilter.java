@@ -1,5 +1,6 @@
 package com.example.personnelservice.config;
 
+import com.example.personnelservice.dto.TokenClaims;
 import com.example.personnelservice.service.AuthService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -34,9 +35,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
             
             try {
-                if (authService.validateToken(token)) {
-                    String role = authService.extractRole(token);
-                    String email = authService.extractEmail(token);
+                TokenClaims claims = authService.resolveClaims(token).orElse(null);
+                if (claims != null) {
+                    String role = claims.role();
+                    String email = claims.email();
                     java.util.List<org.springframework.security.core.GrantedAuthority> authorities = new ArrayList<>();
                     if (role != null && !role.isEmpty()) {
                         authorities.add(new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_" + role));
@@ -9,8 +9,12 @@ import com.example.personnelservice.model.Title;
 import com.example.personnelservice.repository.DepartmentRepository;
 import com.example.personnelservice.repository.PersonRepository;
 import com.example.personnelservice.repository.TitleRepository;
+import com.example.personnelservice.service.DepartmentService;
+import com.example.personnelservice.service.OrganizationStructureCache;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
@@ -18,8 +22,6 @@ import org.slf4j.LoggerFactory;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -31,14 +33,20 @@ public class DepartmentController {
     private final DepartmentRepository departmentRepository;
     private final PersonRepository personRepository;
     private final TitleRepository titleRepository;
+    private final OrganizationStructureCache organizationStructure;
+    private final DepartmentService departmentService;
     private static final Logger log = LoggerFactory.getLogger(DepartmentController.class);
 
     public DepartmentController(DepartmentRepository departmentRepository,
                                 PersonRepository personRepository,
-                                TitleRepository titleRepository) {
+                                TitleRepository titleRepository,
+                                OrganizationStructureCache organizationStructure,
+                                DepartmentService departmentService) {
         this.departmentRepository = departmentRepository;
         this.personRepository = personRepository;
         this.titleRepository = titleRepository;
+        this.organizationStructure = organizationStructure;
+        this.departmentService = departmentService;
     }
 
     @GetMapping
@@ -48,56 +56,17 @@ public class DepartmentController {
         return departmentRepository.findAll();
     }
 
-    @GetMapping("/organization-structure")
+    @GetMapping(value = "/organization-structure", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get organization structure")
-    public Map<String, Object> getOrganizationStructure() {
+    public ResponseEntity<byte[]> getOrganizationStructure() {
         log.info("Get organization structure");
-        List<Department> departments = departmentRepository.findAll();
-        List<Person> people = personRepository.findAll();
-
-        Map<Long, List<Person>> peopleByDepartment = new HashMap<>();
-        for (Person person : people) {
-            if (person.getDepartment() == null) {
-                continue;
-            }
-            Long deptId = person.getDepartment().getId();
-            List<Person> list = peopleByDepartment.get(deptId);
-            if (list == null) {
-                list = new ArrayList<>();
-                peopleByDepartment.put(deptId, list);
-            }
-            list.add(person);
-        }
-
-        List<Map<String, Object>> departmentStructure = new ArrayList<>();
-        for (Department dept : departments) {
-            List<Person> deptPeople = peopleByDepartment.get(dept.getId());
-            if (deptPeople == null) {
-                deptPeople = new ArrayList<>();
-            }
-
-            List<Person> employees = new ArrayList<>();
-            Person head = dept.getHeadOfDepartment();
-            Long headId = head != null ? head.getId() : null;
-            for (Person person : deptPeople) {
-                if (headId != null && headId.equals(person.getId())) {
-                    continue;
-                }
-                employees.add(person);
-            }
-
-            Map<String, Object> deptMap = new HashMap<>();
-            deptMap.put("id", dept.getId());
-            deptMap.put("name", dept.getName());
-            deptMap.put("color", dept.getColor());
-            deptMap.put("headOfDepartment", head);
-            deptMap.put("employees", employees);
-            departmentStructure.add(deptMap);
-        }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("departments", departmentStructure);
-        return result;
+        OrganizationStructureCache.Snapshot snapshot = organizationStructure.get();
+        // A matching If-None-Match turns this into a bodiless 304.
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
     }
 
     @PostMapping
@@ -198,25 +167,7 @@ public class DepartmentController {
     public ResponseEntity<?> deleteDepartment(@PathVariable Long id) {
         try {
             log.info("Delete department {}", id);
-            Department department = departmentRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Department not found"));
-
-            department.setHeadOfDepartment(null);
-
-            List<Person> people = personRepository.findByDepartmentId(id);
-            for (Person p : people) {
-                p.setDepartment(null);
-                p.setTitle(null);
-                personRepository.save(p);
-            }
-
-            List<Title> titles = titleRepository.findByDepartmentId(id);
-            for (Title t : titles) {
-                titleRepository.delete(t);
-            }
-
-            departmentRepository.deleteById(id);
-            log.info("Department deleted {}", id);
+            departmentService.deleteDepartment(id);
             return ResponseEntity.ok().build();
         } catch (RuntimeException e) {
             log.warn("Delete department failed {}: {}", id, e.getMessage());
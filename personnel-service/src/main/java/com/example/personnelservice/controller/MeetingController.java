@@ -1,7 +1,11 @@
 package com.example.personnelservice.controller;
 
+import com.example.personnelservice.dto.MeetingSummary;
 import com.example.personnelservice.model.Meeting;
 import com.example.personnelservice.service.MeetingService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -30,31 +34,31 @@ public class MeetingController {
     @Operation(summary = "List all meetings")
     public ResponseEntity<List<Meeting>> list() {
         log.info("List meetings");
-        meetingService.finalizePastMeetings();
         return ResponseEntity.ok(meetingService.listAll());
     }
 
-    @GetMapping("/me")
-    @Operation(summary = "List my meetings")
-    public ResponseEntity<List<Meeting>> myMeetings(Authentication auth) {
-        log.info("List my meetings for {}", auth != null ? auth.getPrincipal() : "unknown");
-        meetingService.finalizePastMeetings();
-        return ResponseEntity.ok(meetingService.listMine((String) auth.getPrincipal()));
-    }
-
-    @GetMapping("/user")
-    @Operation(summary = "List meetings for current user")
-    public ResponseEntity<List<Meeting>> userMeetings(Authentication auth) {
-        log.info("List user meetings for {}", auth != null ? auth.getPrincipal() : "unknown");
-        meetingService.finalizePastMeetings();
-        return ResponseEntity.ok(meetingService.listUserMeetings((String) auth.getPrincipal()));
+    @GetMapping({"/me", "/user"})
+    @Operation(summary = "List meetings the current user organizes or attends, by day and start time")
+    public ResponseEntity<?> myMeetings(Authentication auth,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "50") int size) {
+        if (auth == null) return ResponseEntity.status(401).build();
+        log.info("List my meetings for {} from {} to {} page {} size {}", auth.getPrincipal(), from, to, page, size);
+        try {
+            Page<MeetingSummary> meetings = meetingService.listMine((String) auth.getPrincipal(), from, to, PageRequest.of(page, size));
+            return ResponseEntity.ok(meetings);
+        } catch (IllegalArgumentException ex) {
+            log.warn("List my meetings failed: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", ex.getMessage()));
+        }
     }
 
     @GetMapping("/department/{departmentId}")
     @Operation(summary = "List meetings by department")
     public ResponseEntity<List<Meeting>> byDepartment(@PathVariable Long departmentId) {
         log.info("List department meetings {}", departmentId);
-        meetingService.finalizePastMeetings();
         return ResponseEntity.ok(meetingService.listByDepartment(departmentId));
     }
 
@@ -1,18 +1,26 @@
 package com.example.personnelservice.controller;
 
+import com.example.personnelservice.dto.CursorPage;
 import com.example.personnelservice.dto.CreatePersonRequest;
 import com.example.personnelservice.dto.UpdatePersonRequest;
 import com.example.personnelservice.model.Person;
+import com.example.personnelservice.service.PersonExportService;
+import com.example.personnelservice.service.PersonImportService;
 import com.example.personnelservice.service.PersonService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,10 +34,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class PersonController {
 
     private final PersonService personService;
+    private final PersonImportService personImportService;
+    private final PersonExportService personExportService;
     private static final Logger log = LoggerFactory.getLogger(PersonController.class);
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
 
-    public PersonController(PersonService personService) {
+    public PersonController(PersonService personService, PersonImportService personImportService,
+                            PersonExportService personExportService) {
         this.personService = personService;
+        this.personImportService = personImportService;
+        this.personExportService = personExportService;
     }
 
     @PostMapping
@@ -46,8 +60,20 @@ public class PersonController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Import people from CSV (header row first) or NDJSON; streams back one NDJSON line per rejected row, then a summary")
+    public void importPeople(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PersonImportService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(TEXT_CSV)
+                ? PersonImportService.Format.CSV
+                : PersonImportService.Format.NDJSON;
+        log.info("Import people as {}", format);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        personImportService.importPeople(request.getInputStream(), format, response.getOutputStream());
+    }
+
     @GetMapping
-    @Operation(summary = "List people with filters and pagination")
+    @Operation(summary = "List people with filters and pagination; pass cursor (empty for the first page) for keyset paging")
     public ResponseEntity<?> getPeople(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -65,9 +91,22 @@ public class PersonController {
             @RequestParam(value = "contractStartDateFrom", required = false) String contractStartDateFromStr,
             @RequestParam(value = "contractStartDateTo", required = false) String contractStartDateToStr,
             @RequestParam(value = "birthDateFrom", required = false) String birthDateFromStr,
-            @RequestParam(value = "birthDateTo", required = false) String birthDateToStr) {
+            @RequestParam(value = "birthDateTo", required = false) String birthDateToStr,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "withTotal", defaultValue = "false") boolean withTotal) {
         
         try {
+            if (cursor != null) {
+                log.info("List people after cursor size {} sort {} {}", size, sortBy, direction);
+                CursorPage<Person> people = personService.findPeopleAfterCursor(
+                    searchQuery, firstName, lastName, email, phoneNumber, departmentId, titleId, gender, address,
+                    parseDate(contractStartDateFromStr), parseDate(contractStartDateToStr),
+                    parseDate(birthDateFromStr), parseDate(birthDateToStr),
+                    sortBy, Sort.Direction.fromString(direction.toUpperCase()), cursor, size, withTotal
+                );
+                log.info("People fetched count {}", people.content().size());
+                return ResponseEntity.ok(people);
+            }
             log.info("List people page {} size {} sort {} {}", page, size, sortBy, direction);
             Sort sort = Sort.by(Sort.Direction.fromString(direction.toUpperCase()), sortBy);
             Pageable pageable = PageRequest.of(page, size, sort);
@@ -90,6 +129,44 @@ public class PersonController {
         }
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export people matching the list filters, ordered by id, as csv, ndjson or columnar (NDJSON row groups)")
+    public void exportPeople(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "q", required = false) String searchQuery,
+            @RequestParam(value = "firstName", required = false) String firstName,
+            @RequestParam(value = "lastName", required = false) String lastName,
+            @RequestParam(value = "email", required = false) String email,
+            @RequestParam(value = "phoneNumber", required = false) String phoneNumber,
+            @RequestParam(value = "departmentId", required = false) Long departmentId,
+            @RequestParam(value = "titleId", required = false) Long titleId,
+            @RequestParam(value = "gender", required = false) String gender,
+            @RequestParam(value = "address", required = false) String address,
+            @RequestParam(value = "contractStartDateFrom", required = false) String contractStartDateFromStr,
+            @RequestParam(value = "contractStartDateTo", required = false) String contractStartDateToStr,
+            @RequestParam(value = "birthDateFrom", required = false) String birthDateFromStr,
+            @RequestParam(value = "birthDateTo", required = false) String birthDateToStr,
+            HttpServletResponse response) throws IOException {
+        PersonExportService.Format exportFormat;
+        try {
+            exportFormat = PersonExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Unsupported format, use csv, ndjson or columnar\"}");
+            return;
+        }
+        log.info("Export people as {}", exportFormat);
+        var filter = personService.peopleFilter(
+                searchQuery, firstName, lastName, email, phoneNumber, departmentId, titleId, gender, address,
+                parseDate(contractStartDateFromStr), parseDate(contractStartDateToStr),
+                parseDate(birthDateFromStr), parseDate(birthDateToStr));
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat == PersonExportService.Format.CSV ? "text/csv;charset=UTF-8" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"people." + (exportFormat == PersonExportService.Format.CSV ? "csv" : "ndjson") + "\"");
+        personExportService.export(filter, exportFormat, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get person by id")
     public ResponseEntity<Person> getPersonById(@PathVariable Long id) {
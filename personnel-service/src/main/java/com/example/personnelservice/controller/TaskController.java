@@ -1,11 +1,13 @@
 package com.example.personnelservice.controller;
 
+import com.example.personnelservice.dto.CursorPage;
+import com.example.personnelservice.dto.TaskFilter;
 import com.example.personnelservice.model.*;
 import com.example.personnelservice.service.TaskService;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,10 +26,11 @@ public class TaskController {
     }
 
     @GetMapping
-    @Operation(summary = "List all tasks")
-    public ResponseEntity<java.util.List<Task>> list() {
-        log.info("List tasks");
-        return ResponseEntity.ok(taskService.listAll());
+    @Operation(summary = "List tasks, newest first, with filters; pass nextCursor back as cursor for the following page")
+    public ResponseEntity<?> list(@ParameterObject @ModelAttribute TaskFilter filter,
+                                  @ParameterObject @ModelAttribute CursorParams page) {
+        log.info("List tasks size {} status {} department {}", page.size(), filter.statuses(), filter.departmentId());
+        return listed("List tasks", () -> taskService.findTasks(filter, page.cursor(), page.size(), page.withTotal()));
     }
 
     @PostMapping("/create")
@@ -40,20 +43,25 @@ public class TaskController {
     }
 
     @GetMapping("/me")
-    @Operation(summary = "List tasks assigned to me")
-    public ResponseEntity<List<Task>> myTasks(Authentication auth) {
-        log.info("List my tasks for {}", auth != null ? auth.getPrincipal() : "unknown");
-        return ResponseEntity.ok(taskService.getTasksForAssignee((String) auth.getPrincipal()));
+    @Operation(summary = "List tasks assigned to me, newest first")
+    public ResponseEntity<?> myTasks(Authentication auth, @ParameterObject @ModelAttribute TaskFilter filter,
+                                     @ParameterObject @ModelAttribute CursorParams page) {
+        if (auth == null) return ResponseEntity.status(401).build();
+        log.info("List my tasks for {} size {}", auth.getPrincipal(), page.size());
+        return listed("List my tasks", () -> taskService.findTasksForAssignee((String) auth.getPrincipal(), filter,
+                page.cursor(), page.size(), page.withTotal()));
     }
 
     @GetMapping("/user")
-    @Operation(summary = "List tasks created by me")
-    public ResponseEntity<List<Task>> userTasks(Authentication auth) {
-        log.info("List user tasks for {}", auth != null ? auth.getPrincipal() : "unknown");
-        return ResponseEntity.ok(taskService.getTasksForUser((String) auth.getPrincipal()));
+    @Operation(summary = "List tasks I created or am assigned, newest first")
+    public ResponseEntity<?> userTasks(Authentication auth, @ParameterObject @ModelAttribute TaskFilter filter,
+                                       @ParameterObject @ModelAttribute CursorParams page) {
+        if (auth == null) return ResponseEntity.status(401).build();
+        log.info("List user tasks for {} size {}", auth.getPrincipal(), page.size());
+        return listed("List user tasks", () -> taskService.findTasksForUser((String) auth.getPrincipal(), filter,
+                page.cursor(), page.size(), page.withTotal()));
     }
 
-
     @PutMapping("/{taskId}/status")
     @Operation(summary = "Update task status")
     public ResponseEntity<Task> updateStatus(@PathVariable Long taskId, @RequestBody UpdateTaskStatusRequest req, Authentication auth) {
@@ -83,6 +91,24 @@ public class TaskController {
         public Task.Status status;
     }
 
+    /** Paging parameters shared by the task listings; pass nextCursor back as {@code cursor}. */
+    public record CursorParams(String cursor, Integer size, Boolean withTotal) {
+        public CursorParams {
+            size = size != null ? size : 50;
+            withTotal = withTotal != null && withTotal;
+        }
+    }
+
+    /** An invalid filter, cursor or size is the caller's mistake and answers 400. */
+    private ResponseEntity<?> listed(String action, java.util.function.Supplier<CursorPage<Task>> query) {
+        try {
+            return ResponseEntity.ok(query.get());
+        } catch (IllegalArgumentException ex) {
+            log.warn("{} failed: {}", action, ex.getMessage());
+            return ResponseEntity.badRequest().body(java.util.Map.of("error", ex.getMessage()));
+        }
+    }
+
     private boolean hasAnyRole(Authentication auth, String... roles) {
         if (auth == null) return false;
         java.util.Set<String> owned = new java.util.HashSet<>();
@@ -6,6 +6,7 @@ import com.example.personnelservice.model.Department;
 import com.example.personnelservice.model.Title;
 import com.example.personnelservice.repository.DepartmentRepository;
 import com.example.personnelservice.repository.TitleRepository;
+import com.example.personnelservice.service.TitleService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,12 +24,12 @@ import java.util.Map;
 public class TitleController {
     private final TitleRepository titleRepository;
     private final DepartmentRepository departmentRepository;
-    private final com.example.personnelservice.repository.PersonRepository personRepository;
+    private final TitleService titleService;
 
-    public TitleController(TitleRepository titleRepository, DepartmentRepository departmentRepository, com.example.personnelservice.repository.PersonRepository personRepository) {
+    public TitleController(TitleRepository titleRepository, DepartmentRepository departmentRepository, TitleService titleService) {
         this.titleRepository = titleRepository;
         this.departmentRepository = departmentRepository;
-        this.personRepository = personRepository;
+        this.titleService = titleService;
     }
 
     @GetMapping
@@ -85,16 +86,7 @@ public class TitleController {
     @Operation(summary = "Delete a title and cleanup relations")
     public ResponseEntity<?> deleteTitle(@PathVariable Long id) {
         try {
-            Title title = titleRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Title not found"));
-
-            java.util.List<com.example.personnelservice.model.Person> people = personRepository.findByTitleId(id);
-            for (com.example.personnelservice.model.Person p : people) {
-                p.setTitle(null);
-                personRepository.save(p);
-            }
-
-            titleRepository.deleteById(id);
+            titleService.deleteTitle(id);
             return ResponseEntity.ok().build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
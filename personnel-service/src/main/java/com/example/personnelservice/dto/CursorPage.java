@@ -0,0 +1,14 @@
+package com.example.personnelservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated listing. {@code nextCursor} is opaque to clients and is passed
+ * back as {@code cursor} to fetch the following page; it is null on the last page.
+ * {@code totalElements} is only filled in when the caller asked for it.
+ */
+public record CursorPage<T>(List<T> content, int size, String nextCursor, boolean hasNext, Long totalElements) {
+    public CursorPage {
+        content = List.copyOf(content);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.personnelservice.dto;
+
+import com.example.personnelservice.model.Meeting;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * A meeting as listed on dashboards: the meeting's own columns plus just enough of the
+ * department, organizer and participants to label them. Field names follow {@link Meeting}.
+ */
+public record MeetingSummary(Long id, String title, String description,
+                             LocalDate day, LocalTime startTime, LocalTime endTime,
+                             boolean finalized, Meeting.ComputedStatus status, LocalDateTime createdAt,
+                             DepartmentRef department, PersonRef organizer, List<PersonRef> participants) {
+
+    public MeetingSummary {
+        participants = participants != null ? List.copyOf(participants) : List.of();
+    }
+
+    public record DepartmentRef(Long id, String name, String color) {
+    }
+
+    public record PersonRef(Long id, String firstName, String lastName, String email, TitleRef title) {
+    }
+
+    public record TitleRef(Long id, String name) {
+    }
+}
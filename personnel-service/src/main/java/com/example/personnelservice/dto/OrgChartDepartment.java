@@ -0,0 +1,18 @@
+package com.example.personnelservice.dto;
+
+import java.util.List;
+
+/**
+ * One department of the organization chart, carrying only what the chart draws. People keep the
+ * field names of {@code Person} so the frontend can treat them as partial people.
+ */
+public record OrgChartDepartment(Long id, String name, String color,
+                                 OrgChartPerson headOfDepartment, List<OrgChartPerson> employees) {
+
+    public record OrgChartPerson(Long id, String firstName, String lastName, String email,
+                                 String profilePictureUrl, OrgChartTitle title) {
+    }
+
+    public record OrgChartTitle(Long id, String name) {
+    }
+}
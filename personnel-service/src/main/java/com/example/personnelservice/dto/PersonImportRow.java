@@ -0,0 +1,17 @@
+package com.example.personnelservice.dto;
+
+/**
+ * One record of a bulk people import. Besides the ids accepted by {@link CreatePersonRequest},
+ * a row may name its department and title; a title name is looked up within the row's department.
+ */
+public class PersonImportRow extends CreatePersonRequest {
+
+    private String department;
+    private String title;
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+}
@@ -0,0 +1,25 @@
+package com.example.personnelservice.dto;
+
+import com.example.personnelservice.model.Task;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.BindParam;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Optional criteria for task listings; null or empty fields do not constrain the result.
+ * The created-at range is inclusive on both ends. The task listings bind it from their query
+ * parameters, where {@code status} and {@code priority} may be repeated or comma-separated.
+ */
+public record TaskFilter(@BindParam("status") List<Task.Status> statuses,
+                         @BindParam("priority") List<Task.Priority> priorities,
+                         Long departmentId, Long assigneeId, Long createdById,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+
+    public TaskFilter {
+        statuses = statuses != null ? List.copyOf(statuses) : List.of();
+        priorities = priorities != null ? List.copyOf(priorities) : List.of();
+    }
+}
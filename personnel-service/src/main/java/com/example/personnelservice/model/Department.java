@@ -1,5 +1,6 @@
 package com.example.personnelservice.model;
 
+import com.example.personnelservice.service.OrganizationStructureListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -7,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.List;
 
 @Entity
+@EntityListeners(OrganizationStructureListener.class)
 @Table(name = "departments")
 public class Department {
     @Id
@@ -21,7 +23,7 @@ public class Department {
     @Column(nullable = false)
     private String color;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "head_of_department_id")
     @JsonIgnoreProperties({"department"})
     private Person headOfDepartment;
@@ -1,6 +1,7 @@
 package com.example.personnelservice.model;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -9,7 +10,10 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "meetings")
+@Table(name = "meetings", indexes = {
+        @Index(name = "idx_meetings_finalized_day", columnList = "finalized, meeting_day"),
+        @Index(name = "idx_meetings_organizer_day", columnList = "organizer_id, meeting_day")
+})
 public class Meeting {
 
     public enum ComputedStatus {
@@ -29,19 +33,21 @@ public class Meeting {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
+    @JsonIgnoreProperties({"headOfDepartment"})
     private Department department;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "organizer_id")
     private Person organizer;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "meeting_participants",
             joinColumns = @JoinColumn(name = "meeting_id"),
-            inverseJoinColumns = @JoinColumn(name = "person_id")
+            inverseJoinColumns = @JoinColumn(name = "person_id"),
+            indexes = @Index(name = "idx_meeting_participants_person", columnList = "person_id, meeting_id")
     )
     private Set<Person> participants = new HashSet<>();
 
@@ -60,6 +66,9 @@ public class Meeting {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    /** Derived on read from the clock; never stored. */
+    private transient ComputedStatus status;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getTitle() { return title; }
@@ -82,6 +91,8 @@ public class Meeting {
     public void setFinalized(boolean finalized) { this.finalized = finalized; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public ComputedStatus getStatus() { return status; }
+    public void setStatus(ComputedStatus status) { this.status = status; }
 }
 
 
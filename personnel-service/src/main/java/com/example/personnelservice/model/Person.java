@@ -1,16 +1,22 @@
 package com.example.personnelservice.model;
 
+import com.example.personnelservice.service.OrganizationStructureListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "people")
+@EntityListeners(OrganizationStructureListener.class)
+@Table(name = "people", indexes = {
+        @Index(name = "idx_people_first_name_id", columnList = "first_name, id"),
+        @Index(name = "idx_people_last_name_id", columnList = "last_name, id")
+})
 public class Person {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "people_seq")
+    @SequenceGenerator(name = "people_seq", sequenceName = "people_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -29,12 +35,12 @@ public class Person {
     @Column(name = "phone_number")
     private String phoneNumber;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
     @JsonIgnoreProperties({"headOfDepartment"})
     private Department department;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "title_id")
     private Title title;
 
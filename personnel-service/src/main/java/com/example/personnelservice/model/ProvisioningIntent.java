@@ -0,0 +1,107 @@
+package com.example.personnelservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@Entity
+@Table(name = "provisioning_outbox", indexes = {
+        @Index(name = "idx_provisioning_outbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_provisioning_outbox_email", columnList = "email, status")
+})
+public class ProvisioningIntent {
+
+    public enum Type {
+        PROVISION,
+        UPDATE
+    }
+
+    public enum Status {
+        PENDING,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "provisioning_outbox_seq")
+    @SequenceGenerator(name = "provisioning_outbox_seq", sequenceName = "provisioning_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Version
+    private Long version;
+
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 36)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "new_email")
+    private String newEmail;
+
+    @Column(name = "roles")
+    private String roles;
+
+    @Column(name = "suppress_email", nullable = false)
+    private boolean suppressEmail;
+
+    @Column(name = "provision_if_missing", nullable = false)
+    private boolean provisionIfMissing;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getNewEmail() { return newEmail; }
+    public void setNewEmail(String newEmail) { this.newEmail = newEmail; }
+    public String getRoles() { return roles; }
+    public void setRoles(String roles) { this.roles = roles; }
+    public boolean isSuppressEmail() { return suppressEmail; }
+    public void setSuppressEmail(boolean suppressEmail) { this.suppressEmail = suppressEmail; }
+    public boolean isProvisionIfMissing() { return provisionIfMissing; }
+    public void setProvisionIfMissing(boolean provisionIfMissing) { this.provisionIfMissing = provisionIfMissing; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public List<String> getRoleList() {
+        return roles == null || roles.isBlank() ? null : Arrays.asList(roles.split(","));
+    }
+
+    public void setRoleList(List<String> roleList) {
+        this.roles = roleList == null || roleList.isEmpty() ? null : String.join(",", roleList);
+    }
+}
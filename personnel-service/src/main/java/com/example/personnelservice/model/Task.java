@@ -1,11 +1,16 @@
 package com.example.personnelservice.model;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_assignee_status_created", columnList = "assignee_id, status, created_at"),
+        @Index(name = "idx_tasks_creator_created", columnList = "created_by_id, created_at"),
+        @Index(name = "idx_tasks_department_status_created", columnList = "department_id, status, created_at")
+})
 public class Task {
 
     public enum Priority {
@@ -41,15 +46,16 @@ public class Task {
     @Column(name = "status", nullable = false)
     private Status status = Status.ASSIGNED;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
+    @JsonIgnoreProperties({"headOfDepartment"})
     private Department department;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id")
     private Person createdBy;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assignee_id")
     private Person assignee;
 
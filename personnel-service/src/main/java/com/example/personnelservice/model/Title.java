@@ -1,5 +1,6 @@
 package com.example.personnelservice.model;
 
+import com.example.personnelservice.service.OrganizationStructureListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -7,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.List;
 
 @Entity
+@EntityListeners(OrganizationStructureListener.class)
 @Table(name = "titles")
 public class Title {
     @Id
@@ -17,7 +19,7 @@ public class Title {
     @Column(nullable = false)
     private String name;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id", nullable = false)
     @JsonIgnoreProperties({"headOfDepartment"})
     private Department department;
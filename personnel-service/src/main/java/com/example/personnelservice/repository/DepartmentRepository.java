@@ -1,14 +1,43 @@
 package com.example.personnelservice.repository;
 
 import com.example.personnelservice.model.Department;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
     Optional<Department> findByNameIgnoreCase(String name);
     boolean existsByNameIgnoreCase(String name);
     long countByHeadOfDepartmentId(Long headOfDepartmentId);
-    java.util.List<com.example.personnelservice.model.Department> findByHeadOfDepartmentId(Long headOfDepartmentId);
-}
+    List<Department> findByHeadOfDepartmentId(Long headOfDepartmentId);
+
+    @Modifying
+    @Query("update Department d set d.headOfDepartment = null where d.headOfDepartment.id = :personId")
+    int clearHeadOfDepartment(@Param("personId") Long personId);
+
+    @Override
+    @EntityGraph(attributePaths = {"headOfDepartment", "headOfDepartment.title", "headOfDepartment.title.department"})
+    Optional<Department> findById(Long id);
 
+    @Override
+    @EntityGraph(attributePaths = {"headOfDepartment", "headOfDepartment.title", "headOfDepartment.title.department"})
+    List<Department> findAll();
 
+    String ORG_CHART_ROWS = "select d.id, d.name, d.color, h.id,"
+            + " p.id, p.department.id, p.firstName, p.lastName, p.email, p.profilePictureUrl, t.id, t.name"
+            + " from Department d left join d.headOfDepartment h"
+            + " left join Person p on p.department = d or p = h"
+            + " left join p.title t";
+
+    /** One row per (department, member) pair, heads included even when they sit elsewhere; ordered by department. */
+    @Query(ORG_CHART_ROWS + " order by d.id, p.id")
+    List<Object[]> findOrgChartRows();
+
+    @Query(ORG_CHART_ROWS + " where d.id in :ids order by d.id, p.id")
+    List<Object[]> findOrgChartRows(Collection<Long> ids);
+}
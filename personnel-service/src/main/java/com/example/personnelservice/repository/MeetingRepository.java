@@ -1,20 +1,72 @@
 package com.example.personnelservice.repository;
 
 import com.example.personnelservice.model.Meeting;
-import com.example.personnelservice.model.Person;
 import com.example.personnelservice.model.Department;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Meeting reads fetch the department, organizer and participants, with each person's
+ * department and title, in one query.
+ */
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
-    List<Meeting> findByParticipantsContainsOrderByDayAscStartTimeAsc(Person participant);
-    List<Meeting> findByOrganizerOrderByDayAscStartTimeAsc(Person organizer);
+    @EntityGraph(attributePaths = {"department", "organizer", "organizer.department", "organizer.title", "organizer.title.department",
+            "participants", "participants.department", "participants.title", "participants.title.department"})
     List<Meeting> findByDepartmentOrderByDayAscStartTimeAsc(Department department);
-    List<Meeting> findByFinalizedFalseAndDayBefore(LocalDate threshold);
-}
 
+    String MINE = " from Meeting m left join m.department d left join m.organizer o left join o.title ot"
+            + " where (o.id = :personId or exists (select 1 from m.participants p where p.id = :personId))"
+            + " and (:from is null or m.day >= :from) and (:to is null or m.day <= :to)";
+
+    /** Meetings the person organizes or attends within [from, to] (either bound optional), in calendar order, one row per meeting. */
+    @Query(value = "select m.id, m.title, m.description, m.day, m.startTime, m.endTime, m.finalized, m.createdAt,"
+            + " d.id, d.name, d.color, o.id, o.firstName, o.lastName, o.email, ot.id, ot.name"
+            + MINE + " order by m.day, m.startTime, m.id",
+            countQuery = "select count(m)" + MINE)
+    Page<Object[]> findSummariesFor(@Param("personId") Long personId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to,
+                                    Pageable pageable);
+
+    @Query("select m.id, p.id, p.firstName, p.lastName, p.email, t.id, t.name"
+            + " from Meeting m join m.participants p left join p.title t"
+            + " where m.id in :meetingIds order by m.id, p.lastName, p.firstName")
+    List<Object[]> findParticipantRefs(@Param("meetingIds") Collection<Long> meetingIds);
+
+    @Modifying
+    @Query("update Meeting m set m.finalized = true where m.finalized = false and m.day < :day")
+    int finalizeBefore(@Param("day") LocalDate day);
 
+    @Modifying
+    @Query("update Meeting m set m.department = null where m.department.id = :departmentId")
+    int clearDepartment(@Param("departmentId") Long departmentId);
+
+    @Modifying
+    @Query("update Meeting m set m.organizer = null where m.organizer.id = :personId")
+    int clearOrganizer(@Param("personId") Long personId);
+
+    @Modifying
+    @Query(value = "delete from meeting_participants where person_id = :personId", nativeQuery = true)
+    int removeParticipant(@Param("personId") Long personId);
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "organizer", "organizer.department", "organizer.title", "organizer.title.department",
+            "participants", "participants.department", "participants.title", "participants.title.department"})
+    Optional<Meeting> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "organizer", "organizer.department", "organizer.title", "organizer.title.department",
+            "participants", "participants.department", "participants.title", "participants.title.department"})
+    List<Meeting> findAll();
+}
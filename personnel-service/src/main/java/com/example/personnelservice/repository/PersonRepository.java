@@ -1,16 +1,74 @@
 package com.example.personnelservice.repository;
 
 import com.example.personnelservice.model.Person;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads that back API responses fetch what a serialized {@link Person} shows (department,
+ * title and the title's department) in the same query; associations are lazy otherwise.
+ */
 @Repository
 public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecificationExecutor<Person> {
     Person findByFirstNameAndLastName(String firstName, String lastName);
+
+    @EntityGraph(attributePaths = {"department", "title", "title.department"})
     Person findByEmail(String email);
+
     long countByDepartmentId(Long departmentId);
     long countByTitleId(Long titleId);
-    java.util.List<Person> findByDepartmentId(Long departmentId);
-    java.util.List<Person> findByTitleId(Long titleId);
-} 
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"department", "title", "title.department"})
+    List<Person> findByDepartmentId(Long departmentId);
+
+    List<Person> findByTitleId(Long titleId);
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "title", "title.department"})
+    Optional<Person> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "title", "title.department"})
+    List<Person> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "title", "title.department"})
+    List<Person> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "title", "title.department"})
+    Page<Person> findAll(Specification<Person> spec, Pageable pageable);
+
+    @Modifying
+    @Query("update Person p set p.department = null, p.title = null where p.department.id = :departmentId")
+    int clearDepartment(@Param("departmentId") Long departmentId);
+
+    @Modifying
+    @Query("update Person p set p.title = null where p.title.id in (select t.id from Title t where t.department.id = :departmentId)")
+    int clearTitlesOfDepartment(@Param("departmentId") Long departmentId);
+
+    @Modifying
+    @Query("update Person p set p.title = null where p.title.id = :titleId")
+    int clearTitle(@Param("titleId") Long titleId);
+
+    @Query("select p.email from Person p where p.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select p.id from Person p where p.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Query("select p.id, p.firstName, p.lastName, p.email, p.phoneNumber from Person p")
+    List<Object[]> findSearchFields();
+}
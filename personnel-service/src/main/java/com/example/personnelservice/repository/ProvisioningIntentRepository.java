@@ -0,0 +1,18 @@
+package com.example.personnelservice.repository;
+
+import com.example.personnelservice.model.ProvisioningIntent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProvisioningIntentRepository extends JpaRepository<ProvisioningIntent, Long> {
+    List<ProvisioningIntent> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(ProvisioningIntent.Status status, LocalDateTime now, Pageable pageable);
+    Optional<ProvisioningIntent> findFirstByStatusAndTypeAndEmailIgnoreCaseOrderByIdDesc(ProvisioningIntent.Status status, ProvisioningIntent.Type type, String email);
+    List<ProvisioningIntent> findByStatusAndTypeAndEmailInOrderByIdAsc(ProvisioningIntent.Status status, ProvisioningIntent.Type type, Collection<String> emails);
+}
@@ -1,17 +1,46 @@
 package com.example.personnelservice.repository;
 
 import com.example.personnelservice.model.Task;
-import com.example.personnelservice.model.Person;
 import com.example.personnelservice.model.Department;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Task reads fetch the department and both people, with each person's department and title,
+ * in one query. Specification-based listings pass the same paths through {@code project(...)}.
+ */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+    @EntityGraph(attributePaths = {"department", "createdBy", "createdBy.department", "createdBy.title", "createdBy.title.department",
+            "assignee", "assignee.department", "assignee.title", "assignee.title.department"})
     List<Task> findByDepartmentOrderByCreatedAtDesc(Department department);
-    List<Task> findByAssigneeOrderByCreatedAtDesc(Person assignee);
-    List<Task> findByCreatedByOrderByCreatedAtDesc(Person createdBy);
-}
 
+    @Override
+    @EntityGraph(attributePaths = {"department", "createdBy", "createdBy.department", "createdBy.title", "createdBy.title.department",
+            "assignee", "assignee.department", "assignee.title", "assignee.title.department"})
+    Optional<Task> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "createdBy", "createdBy.department", "createdBy.title", "createdBy.title.department",
+            "assignee", "assignee.department", "assignee.title", "assignee.title.department"})
+    List<Task> findAll();
+
+    @Modifying
+    @Query("update Task t set t.department = null where t.department.id = :departmentId")
+    int clearDepartment(@Param("departmentId") Long departmentId);
 
+    @Modifying
+    @Query("update Task t set t.assignee = null where t.assignee.id = :personId")
+    int clearAssignee(@Param("personId") Long personId);
+
+    @Modifying
+    @Query("update Task t set t.createdBy = null where t.createdBy.id = :personId")
+    int clearCreator(@Param("personId") Long personId);
+}
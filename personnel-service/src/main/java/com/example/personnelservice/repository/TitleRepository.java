@@ -2,15 +2,34 @@ package com.example.personnelservice.repository;
 
 import com.example.personnelservice.model.Title;
 import com.example.personnelservice.model.Department;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 import java.util.Optional;
 
 public interface TitleRepository extends JpaRepository<Title, Long> {
     List<Title> findByDepartment(Department department);
+
+    @EntityGraph(attributePaths = {"department"})
     List<Title> findByDepartmentId(Long departmentId);
+
+    @EntityGraph(attributePaths = {"department"})
     Optional<Title> findByDepartmentIdAndNameIgnoreCase(Long departmentId, String name);
+
     boolean existsByNameIgnoreCase(String name);
-}
 
+    @Modifying
+    @Query("delete from Title t where t.department.id = :departmentId")
+    int deleteAllByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Override
+    @EntityGraph(attributePaths = {"department"})
+    Optional<Title> findById(Long id);
 
+    @Override
+    @EntityGraph(attributePaths = {"department"})
+    List<Title> findAll();
+}
@@ -1,156 +1,246 @@
 package com.example.personnelservice.service;
 
+import com.example.personnelservice.config.AuthClientConfig;
+import com.example.personnelservice.dto.TokenClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.util.retry.Retry;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     private final WebClient webClient;
+    private final JwtVerifier jwtVerifier;
+    private final TokenValidationBatcher validationBatcher;
+    private final Cache<String, TokenClaims> claimsCache;
+    private final CircuitBreaker circuitBreaker;
 
-    @Value("${auth-service.url:http://localhost:8082}")
-    private String authServiceUrl;
+    @Value("${auth-service.client.max-retries:2}")
+    private int maxRetries;
 
-    public AuthService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.build();
+    @Value("${auth-service.client.retry-backoff:PT0.2S}")
+    private Duration retryBackoff;
+
+    @Value("${auth-service.client.batch-read-timeout:PT30S}")
+    private Duration batchReadTimeout;
+
+    /** auth-service's answer for one user of a batch provision; {@code error} is set when it was rejected. */
+    public record ProvisionResult(String email, String password, boolean created, String error) {
+    }
+
+    public AuthService(WebClient authWebClient,
+                       CircuitBreaker authCircuitBreaker,
+                       JwtVerifier jwtVerifier,
+                       TokenValidationBatcher validationBatcher,
+                       MeterRegistry meterRegistry,
+                       @Value("${auth-service.claims-cache.max-size:10000}") long maxSize,
+                       @Value("${auth-service.claims-cache.max-ttl:PT5M}") Duration maxTtl) {
+        this.webClient = authWebClient;
+        this.circuitBreaker = authCircuitBreaker;
+        this.jwtVerifier = jwtVerifier;
+        this.validationBatcher = validationBatcher;
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ClaimsExpiry(maxTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "auth.claims");
     }
 
-    public boolean validateToken(String token) {
+    public Optional<TokenClaims> resolveClaims(String token) {
         if (token == null || token.trim().isEmpty()) {
-            return false;
+            return Optional.empty();
+        }
+        String key = hashToken(token);
+        TokenClaims cached = claimsCache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
         }
+        Optional<TokenClaims> claims = jwtVerifier.isReady() ? jwtVerifier.verify(token) : fetchClaims(token);
+        claims.ifPresent(c -> claimsCache.put(key, c));
+        return claims;
+    }
 
+    private Optional<TokenClaims> fetchClaims(String token) {
         try {
-            Boolean isValid = webClient.post()
-                    .uri(authServiceUrl + "/auth/validate")
-                    .header("Content-Type", "application/x-www-form-urlencoded")
-                    .bodyValue("token=" + token)
-                    .retrieve()
-                    .onStatus(status -> status.is2xxSuccessful(), response -> Mono.empty())
-                    .bodyToMono(Object.class)
-                    .map(response -> {
-                        return true;
-                    })
-                    .onErrorReturn(false)
-                    .block();
-            
-            boolean result = Boolean.TRUE.equals(isValid);
-            return result;
+            return validationBatcher.submit(token).get(5, TimeUnit.SECONDS);
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
         }
     }
 
-    public String extractRole(String token) {
+    private static String hashToken(String token) {
         try {
-                    String role = webClient.post()
-                .uri(authServiceUrl + "/auth/validate")
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .bodyValue("token=" + token)
-                .retrieve()
-                .bodyToMono(java.util.Map.class)
-                .map(map -> (String) map.get("role"))
-                .onErrorReturn("")
-                .block();
-            return role;
-        } catch (Exception e) {
-            return null;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 
-    public String extractEmail(String token) {
-        try {
-            String email = webClient.post()
-                .uri(authServiceUrl + "/auth/validate")
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .bodyValue("token=" + token)
+    /** Keeps each entry no longer than the configured TTL and never past the token's own exp claim. */
+    private static final class ClaimsExpiry implements Expiry<String, TokenClaims> {
+        private final long maxTtlNanos;
+
+        ClaimsExpiry(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+            if (claims.expiresAt() == null) {
+                return maxTtlNanos;
+            }
+            long untilExp = Duration.between(Instant.now(), claims.expiresAt()).toNanos();
+            return Math.max(0, Math.min(maxTtlNanos, untilExp));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public CompletableFuture<String> provision(String email, java.util.List<String> roles) {
+        java.util.Map<String, Object> req = new java.util.HashMap<>();
+        req.put("email", email);
+        req.put("roles", roles);
+        return provisionRequest(req);
+    }
+
+    public CompletableFuture<String> provisionWithPassword(String email, java.util.List<String> roles, String password) {
+        java.util.Map<String, Object> req = new java.util.HashMap<>();
+        req.put("email", email);
+        req.put("roles", roles);
+        if (password != null && !password.isBlank()) req.put("password", password);
+        return provisionRequest(req);
+    }
+
+    public CompletableFuture<String> provisionWithPasswordNoEmail(String email, java.util.List<String> roles, String password) {
+        java.util.Map<String, Object> req = new java.util.HashMap<>();
+        req.put("email", email);
+        req.put("roles", roles);
+        if (password != null && !password.isBlank()) req.put("password", password);
+        req.put("suppressEmail", true);
+        return provisionRequest(req);
+    }
+
+    public CompletableFuture<Boolean> updateUser(String email, String newEmail, java.util.List<String> roles) {
+        java.util.Map<String, Object> req = new java.util.HashMap<>();
+        req.put("email", email);
+        if (newEmail != null) req.put("newEmail", newEmail);
+        if (roles != null) req.put("roles", roles);
+        return updateUserCall(req, null)
+                .onErrorResume(e -> {
+                    log.warn("Update user {} failed: {}", email, e.getMessage());
+                    return Mono.just(false);
+                })
+                .toFuture();
+    }
+
+    private CompletableFuture<String> provisionRequest(java.util.Map<String, Object> req) {
+        return provisionCall(req, null)
+                .onErrorResume(e -> {
+                    log.warn("Provision {} failed: {}", req.get("email"), e.getMessage());
+                    return Mono.empty();
+                })
+                .toFuture();
+    }
+
+    /** Provisions a user; errors that survive retries are propagated so outbox delivery can reschedule. */
+    Mono<String> provisionCall(java.util.Map<String, Object> req, String idempotencyKey) {
+        return webClient.post()
+                .uri("/auth/provision")
+                .headers(h -> { if (idempotencyKey != null) h.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey); })
+                .bodyValue(req)
                 .retrieve()
                 .bodyToMono(java.util.Map.class)
-                .map(map -> (String) map.get("email"))
-                .onErrorReturn("")
-                .block();
-            return email;
-        } catch (Exception e) {
-            return null;
-        }
+                .mapNotNull(resp -> resp.get("password") != null ? resp.get("password").toString() : null)
+                .transform(this::resilient);
     }
 
-    public String provision(String email, java.util.List<String> roles) {
-        try {
-            java.util.Map<String, Object> req = new java.util.HashMap<>();
-            req.put("email", email);
-            req.put("roles", roles);
-            java.util.Map resp = webClient.post()
-                    .uri(authServiceUrl + "/auth/provision")
-                    .bodyValue(req)
-                    .retrieve()
-                    .bodyToMono(java.util.Map.class)
-                    .block();
-            Object pw = resp != null ? resp.get("password") : null;
-            return pw != null ? pw.toString() : null;
-        } catch (Exception e) {
-            return null;
-        }
+    /** Provisions many users in one call, e.g. when seeding; failures are logged and yield an empty list. */
+    public CompletableFuture<java.util.List<ProvisionResult>> provisionBatch(java.util.List<java.util.Map<String, Object>> users) {
+        return provisionBatchCall(users)
+                .onErrorResume(e -> {
+                    log.warn("Batch provision of {} users failed: {}", users.size(), e.getMessage());
+                    return Mono.just(java.util.List.of());
+                })
+                .toFuture();
     }
 
-    public String provisionWithPassword(String email, java.util.List<String> roles, String password) {
-        try {
-            java.util.Map<String, Object> req = new java.util.HashMap<>();
-            req.put("email", email);
-            req.put("roles", roles);
-            if (password != null && !password.isBlank()) req.put("password", password);
-            java.util.Map resp = webClient.post()
-                    .uri(authServiceUrl + "/auth/provision")
-                    .bodyValue(req)
-                    .retrieve()
-                    .bodyToMono(java.util.Map.class)
-                    .block();
-            Object pw = resp != null ? resp.get("password") : null;
-            return pw != null ? pw.toString() : null;
-        } catch (Exception e) {
-            return null;
-        }
+    /**
+     * Provisions many users in one call; results come back in request order. Hashing a whole batch
+     * takes longer than a single call, so the response timeout is the batch one.
+     */
+    Mono<java.util.List<ProvisionResult>> provisionBatchCall(java.util.List<java.util.Map<String, Object>> users) {
+        return webClient.post()
+                .uri("/auth/provision/batch")
+                .httpRequest(request -> {
+                    Object nativeRequest = request.getNativeRequest();
+                    if (nativeRequest instanceof HttpClientRequest clientRequest) {
+                        clientRequest.responseTimeout(batchReadTimeout);
+                    }
+                })
+                .bodyValue(java.util.Map.of("users", users))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<java.util.List<ProvisionResult>>() {})
+                .transform(this::resilient);
     }
 
-    public String provisionWithPasswordNoEmail(String email, java.util.List<String> roles, String password) {
-        try {
-            java.util.Map<String, Object> req = new java.util.HashMap<>();
-            req.put("email", email);
-            req.put("roles", roles);
-            if (password != null && !password.isBlank()) req.put("password", password);
-            req.put("suppressEmail", true);
-            java.util.Map resp = webClient.post()
-                    .uri(authServiceUrl + "/auth/provision")
-                    .bodyValue(req)
-                    .retrieve()
-                    .bodyToMono(java.util.Map.class)
-                    .block();
-            Object pw = resp != null ? resp.get("password") : null;
-            return pw != null ? pw.toString() : null;
-        } catch (Exception e) {
-            return null;
-        }
+    /** Emits false when auth-service rejects the update (e.g. unknown user); transient errors are propagated. */
+    Mono<Boolean> updateUserCall(java.util.Map<String, Object> req, String idempotencyKey) {
+        return webClient.post()
+                .uri("/auth/update-user")
+                .headers(h -> { if (idempotencyKey != null) h.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey); })
+                .bodyValue(req)
+                .retrieve()
+                .toBodilessEntity()
+                .map(response -> true)
+                .onErrorResume(WebClientResponseException.class, e -> e.getStatusCode().is4xxClientError() && !AuthClientConfig.isTransient(e)
+                        ? Mono.just(false)
+                        : Mono.error(e))
+                .transform(this::resilient);
     }
 
-    public boolean updateUser(String email, String newEmail, java.util.List<String> roles) {
-        try {
-            java.util.Map<String, Object> req = new java.util.HashMap<>();
-            req.put("email", email);
-            if (newEmail != null) req.put("newEmail", newEmail);
-            if (roles != null) req.put("roles", roles);
-            webClient.post()
-                    .uri(authServiceUrl + "/auth/update-user")
-                    .bodyValue(req)
-                    .retrieve()
-                    .bodyToMono(Void.class)
-                    .block();
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+    private <T> Mono<T> resilient(Mono<T> call) {
+        return call
+                .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                        .jitter(0.5)
+                        .filter(AuthClientConfig::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
     }
 }
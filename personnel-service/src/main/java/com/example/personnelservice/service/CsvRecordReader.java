@@ -0,0 +1,97 @@
+package com.example.personnelservice.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal incremental RFC 4180 reader: comma separated, fields optionally wrapped in double
+ * quotes, {@code ""} inside quotes for a literal quote, and line breaks allowed inside quoted
+ * fields. Reads one record at a time so arbitrarily large inputs are never held in memory.
+ */
+final class CsvRecordReader {
+
+    private final Reader in;
+    private int line = 1;
+    private int recordLine;
+    private int pending = -2;
+
+    CsvRecordReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Line on which the record last returned by {@link #next()} started. */
+    int recordLine() {
+        return recordLine;
+    }
+
+    /** Returns the next record, or null at end of input. Blank lines are skipped. */
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = n;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int n = read();
+                    if (n != '\n') unread(n);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pending != -2) {
+            c = pending;
+            pending = -2;
+        } else {
+            c = in.read();
+        }
+        if (c == '\n') line++;
+        return c;
+    }
+
+    private void unread(int c) {
+        if (c == '\n') line--;
+        pending = c;
+    }
+}
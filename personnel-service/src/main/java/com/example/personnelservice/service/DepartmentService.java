@@ -0,0 +1,64 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.model.Department;
+import com.example.personnelservice.repository.DepartmentRepository;
+import com.example.personnelservice.repository.MeetingRepository;
+import com.example.personnelservice.repository.PersonRepository;
+import com.example.personnelservice.repository.TaskRepository;
+import com.example.personnelservice.repository.TitleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class DepartmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(DepartmentService.class);
+
+    private final DepartmentRepository departmentRepository;
+    private final PersonRepository personRepository;
+    private final TitleRepository titleRepository;
+    private final TaskRepository taskRepository;
+    private final MeetingRepository meetingRepository;
+    private final OrganizationStructureCache organizationStructure;
+
+    public DepartmentService(DepartmentRepository departmentRepository,
+                             PersonRepository personRepository,
+                             TitleRepository titleRepository,
+                             TaskRepository taskRepository,
+                             MeetingRepository meetingRepository,
+                             OrganizationStructureCache organizationStructure) {
+        this.departmentRepository = departmentRepository;
+        this.personRepository = personRepository;
+        this.titleRepository = titleRepository;
+        this.taskRepository = taskRepository;
+        this.meetingRepository = meetingRepository;
+        this.organizationStructure = organizationStructure;
+    }
+
+    /**
+     * Removes the department and its titles. Members lose their department and title, anyone
+     * else holding one of its titles loses the title, and its tasks and meetings become
+     * company-wide; each with a single bulk statement.
+     */
+    public void deleteDepartment(Long id) {
+        log.info("Deleting department {}", id);
+        Department department = departmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Department not found"));
+
+        int retitled = personRepository.clearTitlesOfDepartment(id);
+        int members = personRepository.clearDepartment(id);
+        int tasks = taskRepository.clearDepartment(id);
+        int meetings = meetingRepository.clearDepartment(id);
+        int titles = titleRepository.deleteAllByDepartmentId(id);
+        log.debug("Department {} cleared from {} members, {} title holders, {} tasks, {} meetings; {} titles removed",
+                id, members, retitled, tasks, meetings, titles);
+
+        departmentRepository.delete(department);
+        // The bulk statements above bypass entity callbacks.
+        organizationStructure.invalidateAll();
+        log.info("Department deleted {}", id);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.model.OutboxEvent;
+import com.example.personnelservice.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Records RabbitMQ events in the caller's transaction. The message is serialized here with the
+ * shared JSON converter, so what {@link EventOutboxPublisher} sends after commit is byte-for-byte
+ * what a direct convertAndSend would have produced; rolled back transactions publish nothing.
+ */
+@Service
+public class EventOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(EventOutbox.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessageConverter messageConverter;
+    private final EventOutboxPublisher publisher;
+
+    public EventOutbox(OutboxEventRepository outboxEventRepository,
+                       MessageConverter jsonMessageConverter,
+                       EventOutboxPublisher publisher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.messageConverter = jsonMessageConverter;
+        this.publisher = publisher;
+    }
+
+    @Transactional
+    public void enqueue(String exchange, String routingKey, Object event) {
+        Message message = messageConverter.toMessage(event, new MessageProperties());
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setMessageId(UUID.randomUUID().toString());
+        outboxEvent.setExchange(exchange);
+        outboxEvent.setRoutingKey(routingKey);
+        outboxEvent.setTypeId(String.valueOf(message.getMessageProperties().getHeaders().get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME)));
+        outboxEvent.setContentType(message.getMessageProperties().getContentType());
+        outboxEvent.setPayload(message.getBody());
+        outboxEventRepository.save(outboxEvent);
+        log.debug("Event {} recorded for {}/{}", outboxEvent.getMessageId(), exchange, routingKey);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publisher.wakeUp();
+                }
+            });
+        } else {
+            publisher.wakeUp();
+        }
+    }
+}
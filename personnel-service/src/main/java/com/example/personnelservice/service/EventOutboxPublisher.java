@@ -0,0 +1,151 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.model.OutboxEvent;
+import com.example.personnelservice.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes the event outbox to RabbitMQ. A commit that records events wakes the publisher,
+ * which lingers briefly so concurrent commits share a batch, then sends the batch on one channel
+ * and waits for the broker's publisher confirms before deleting the rows. Unconfirmed batches
+ * stay in the outbox and are retried with backoff; every message carries the outbox message id
+ * so consumers can drop the rare redelivery.
+ */
+@Component
+public class EventOutboxPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(EventOutboxPublisher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "event-outbox-publisher");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    @Value("${events.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${events.outbox.linger-ms:20}")
+    private long lingerMs;
+
+    @Value("${events.outbox.confirm-timeout:PT5S}")
+    private Duration confirmTimeout;
+
+    @Value("${events.outbox.max-backoff:PT1M}")
+    private Duration maxBackoff;
+
+    public EventOutboxPublisher(OutboxEventRepository outboxEventRepository,
+                                RabbitTemplate rabbitTemplate,
+                                TransactionTemplate transactionTemplate) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /** Schedules a drain after the linger window unless one is already pending. */
+    public void wakeUp() {
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::drain, lingerMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Picks up retries and anything left behind by a restart. */
+    @Scheduled(fixedDelayString = "${events.outbox.poll-interval-ms:5000}")
+    public void sweep() {
+        wakeUp();
+    }
+
+    private void drain() {
+        scheduled.set(false);
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = outboxEventRepository.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+                        LocalDateTime.now(), PageRequest.of(0, batchSize));
+                if (batch.isEmpty() || !publish(batch)) {
+                    return;
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            log.warn("Event outbox drain failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean publish(List<OutboxEvent> batch) {
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (OutboxEvent event : batch) {
+                    operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event));
+                }
+                operations.waitForConfirmsOrDie(confirmTimeout.toMillis());
+                return null;
+            });
+        } catch (Exception e) {
+            reschedule(batch, e);
+            return false;
+        }
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+        log.debug("Published {} events", batch.size());
+        return true;
+    }
+
+    private void reschedule(List<OutboxEvent> batch, Exception error) {
+        String message = error.getMessage() != null && error.getMessage().length() > 250
+                ? error.getMessage().substring(0, 250)
+                : error.getMessage();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OutboxEvent event : batch) {
+                outboxEventRepository.findById(event.getId()).ifPresent(current -> {
+                    int attempts = current.getAttempts() + 1;
+                    long backoffSeconds = Math.min(maxBackoff.getSeconds(), 1L << Math.min(attempts, 20));
+                    current.setAttempts(attempts);
+                    current.setLastError(message);
+                    current.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds));
+                });
+            }
+        });
+        log.warn("Publishing {} events failed, will retry: {}", batch.size(), message);
+    }
+
+    private static Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setMessageId(event.getMessageId());
+        properties.setContentType(event.getContentType());
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getTypeId());
+        properties.setTimestamp(Date.from(event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+        return new Message(event.getPayload(), properties);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -6,55 +6,73 @@ import com.example.personnelservice.model.Person;
 import com.example.personnelservice.repository.DepartmentRepository;
 import com.example.personnelservice.repository.MeetingRepository;
 import com.example.personnelservice.repository.PersonRepository;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.personnelservice.config.RabbitMQConfig;
+import com.example.personnelservice.dto.MeetingSummary;
 import com.example.personnelservice.event.MeetingInvitationEvent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class MeetingService {
 
+    private static final Logger log = LoggerFactory.getLogger(MeetingService.class);
+
     private final MeetingRepository meetingRepository;
     private final PersonRepository personRepository;
     private final DepartmentRepository departmentRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final EventOutbox eventOutbox;
 
     public MeetingService(MeetingRepository meetingRepository,
                           PersonRepository personRepository,
                           DepartmentRepository departmentRepository,
-                          RabbitTemplate rabbitTemplate) {
+                          EventOutbox eventOutbox) {
         this.meetingRepository = meetingRepository;
         this.personRepository = personRepository;
         this.departmentRepository = departmentRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.eventOutbox = eventOutbox;
     }
 
     public Meeting.ComputedStatus computeStatus(Meeting m, LocalDateTime now) {
-        if (m.isFinalized()) return Meeting.ComputedStatus.AFTER;
-        LocalDate date = m.getDay();
-        LocalDateTime start = LocalDateTime.of(date, m.getStartTime());
-        LocalDateTime end = LocalDateTime.of(date, m.getEndTime());
+        return computeStatus(m.isFinalized(), m.getDay(), m.getStartTime(), m.getEndTime(), now);
+    }
+
+    private static Meeting.ComputedStatus computeStatus(boolean finalized, LocalDate day, LocalTime startTime, LocalTime endTime, LocalDateTime now) {
+        if (finalized) return Meeting.ComputedStatus.AFTER;
+        LocalDateTime start = LocalDateTime.of(day, startTime);
+        LocalDateTime end = LocalDateTime.of(day, endTime);
         if (now.isBefore(start)) return Meeting.ComputedStatus.BEFORE;
         if (now.isAfter(end)) return Meeting.ComputedStatus.AFTER;
         return Meeting.ComputedStatus.ONGOING;
     }
 
+    /**
+     * Marks every meeting from a previous day as finalized in one statement. Reads never write;
+     * until this runs, {@link #computeStatus} already reports such meetings as AFTER.
+     */
     @Transactional
+    @Scheduled(initialDelayString = "${meetings.finalizer.initial-delay-ms:10000}",
+            fixedDelayString = "${meetings.finalizer.interval-ms:900000}")
     public void finalizePastMeetings() {
-        List<Meeting> past = meetingRepository.findByFinalizedFalseAndDayBefore(LocalDate.now());
-        for (Meeting m : past) {
-            m.setFinalized(true);
+        int finalized = meetingRepository.finalizeBefore(LocalDate.now());
+        if (finalized > 0) {
+            log.info("Finalized {} past meetings", finalized);
         }
-        meetingRepository.saveAll(past);
     }
 
     @Transactional
@@ -93,40 +111,62 @@ public class MeetingService {
         Meeting savedMeeting = meetingRepository.save(m);
         
         if (!participants.isEmpty()) {
-            try {
-                sendMeetingInvitationEvent(savedMeeting);
-            } catch (Exception ignored) {
-            }
+            sendMeetingInvitationEvent(savedMeeting);
         }
         
         return savedMeeting;
     }
 
-    public List<Meeting> listAll() { return meetingRepository.findAll(); }
+    @Transactional(readOnly = true)
+    public List<Meeting> listAll() { return withStatus(meetingRepository.findAll()); }
 
-    public List<Meeting> listMine(String email) {
-        Person me = personRepository.findByEmail(email);
-        List<Meeting> asOrganizer = meetingRepository.findByOrganizerOrderByDayAscStartTimeAsc(me);
-        List<Meeting> asParticipant = meetingRepository.findByParticipantsContainsOrderByDayAscStartTimeAsc(me);
-        java.util.LinkedHashSet<Meeting> set = new java.util.LinkedHashSet<>();
-        set.addAll(asOrganizer);
-        set.addAll(asParticipant);
-        return new java.util.ArrayList<>(set);
-    }
-
-    public List<Meeting> listUserMeetings(String email) {
-        Person me = personRepository.findByEmail(email);
-        List<Meeting> asOrganizer = meetingRepository.findByOrganizerOrderByDayAscStartTimeAsc(me);
-        List<Meeting> asParticipant = meetingRepository.findByParticipantsContainsOrderByDayAscStartTimeAsc(me);
-        java.util.LinkedHashSet<Meeting> set = new java.util.LinkedHashSet<>();
-        set.addAll(asOrganizer);
-        set.addAll(asParticipant);
-        return new java.util.ArrayList<>(set);
+    /**
+     * Meetings the person organizes or attends, ordered by day and start time, optionally limited
+     * to days in [from, to]. One query pages the meetings, one more loads their participants.
+     */
+    @Transactional(readOnly = true)
+    public Page<MeetingSummary> listMine(String email, LocalDate from, LocalDate to, Pageable pageable) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        Long personId = personRepository.findIdByEmail(email).orElse(null);
+        if (personId == null) {
+            return Page.empty(pageable);
+        }
+        Page<Object[]> rows = meetingRepository.findSummariesFor(personId, from, to, pageable);
+        Map<Long, List<MeetingSummary.PersonRef>> participants = new HashMap<>();
+        if (rows.hasContent()) {
+            List<Long> ids = rows.getContent().stream().map(r -> (Long) r[0]).toList();
+            for (Object[] r : meetingRepository.findParticipantRefs(ids)) {
+                participants.computeIfAbsent((Long) r[0], k -> new ArrayList<>())
+                        .add(new MeetingSummary.PersonRef((Long) r[1], (String) r[2], (String) r[3], (String) r[4],
+                                r[5] != null ? new MeetingSummary.TitleRef((Long) r[5], (String) r[6]) : null));
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return rows.map(r -> new MeetingSummary(
+                (Long) r[0], (String) r[1], (String) r[2],
+                (LocalDate) r[3], (LocalTime) r[4], (LocalTime) r[5],
+                (Boolean) r[6], computeStatus((Boolean) r[6], (LocalDate) r[3], (LocalTime) r[4], (LocalTime) r[5], now),
+                (LocalDateTime) r[7],
+                r[8] != null ? new MeetingSummary.DepartmentRef((Long) r[8], (String) r[9], (String) r[10]) : null,
+                r[11] != null ? new MeetingSummary.PersonRef((Long) r[11], (String) r[12], (String) r[13], (String) r[14],
+                        r[15] != null ? new MeetingSummary.TitleRef((Long) r[15], (String) r[16]) : null) : null,
+                participants.get((Long) r[0])));
     }
 
+    @Transactional(readOnly = true)
     public List<Meeting> listByDepartment(Long departmentId) {
         Department d = departmentRepository.findById(departmentId).orElseThrow();
-        return meetingRepository.findByDepartmentOrderByDayAscStartTimeAsc(d);
+        return withStatus(meetingRepository.findByDepartmentOrderByDayAscStartTimeAsc(d));
+    }
+
+    private List<Meeting> withStatus(List<Meeting> meetings) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Meeting m : meetings) {
+            m.setStatus(computeStatus(m, now));
+        }
+        return meetings;
     }
 
     private void sendMeetingInvitationEvent(Meeting meeting) {
@@ -161,7 +201,7 @@ public class MeetingService {
         event.setParticipantEmailToName(emailToName);
         event.setCreatedAt(meeting.getCreatedAt().toLocalDate());
         
-        rabbitTemplate.convertAndSend(RabbitMQConfig.MEETING_INVITATION_EXCHANGE, 
+        eventOutbox.enqueue(RabbitMQConfig.MEETING_INVITATION_EXCHANGE, 
                                     RabbitMQConfig.MEETING_INVITATION_ROUTING_KEY, event);
     }
 }
@@ -0,0 +1,226 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.dto.OrgChartDepartment;
+import com.example.personnelservice.dto.OrgChartDepartment.OrgChartPerson;
+import com.example.personnelservice.dto.OrgChartDepartment.OrgChartTitle;
+import com.example.personnelservice.repository.DepartmentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the organization chart as a pre-serialized JSON snapshot with a content ETag.
+ * Each department is rendered to its own fragment; committed changes to people, titles or
+ * departments only mark the departments they show up in as dirty, and the next read reloads
+ * just those departments with one projection query before re-assembling the snapshot.
+ */
+@Component
+public class OrganizationStructureCache {
+
+    private static final Logger log = LoggerFactory.getLogger(OrganizationStructureCache.class);
+    private static final byte[] PREFIX = "{\"departments\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final DepartmentRepository departmentRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Object buildLock = new Object();
+    private final Map<Long, Fragment> fragments = new TreeMap<>();
+    private final Set<Long> dirtyDepartments = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyPeople = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyTitles = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloadAll = new AtomicBoolean(true);
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public OrganizationStructureCache(DepartmentRepository departmentRepository, ObjectMapper objectMapper) {
+        this.departmentRepository = departmentRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public record Snapshot(byte[] body, String etag, long generation) {
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == generation.get()) {
+            return current;
+        }
+        synchronized (buildLock) {
+            current = snapshot;
+            long target = generation.get();
+            if (current != null && current.generation() == target) {
+                return current;
+            }
+            refresh();
+            current = assemble(target);
+            snapshot = current;
+            return current;
+        }
+    }
+
+    /** The person was saved or removed; {@code departmentId} is where they belong now, if anywhere. */
+    public void personChanged(Long personId, Long departmentId) {
+        afterCommit(() -> {
+            dirtyPeople.add(personId);
+            if (departmentId != null) dirtyDepartments.add(departmentId);
+        });
+    }
+
+    public void titleChanged(Long titleId) {
+        afterCommit(() -> dirtyTitles.add(titleId));
+    }
+
+    public void departmentChanged(Long departmentId) {
+        afterCommit(() -> dirtyDepartments.add(departmentId));
+    }
+
+    /** For bulk statements that bypass entity callbacks. */
+    public void invalidateAll() {
+        afterCommit(() -> reloadAll.set(true));
+    }
+
+    private void afterCommit(Runnable mark) {
+        Runnable action = () -> {
+            mark.run();
+            generation.incrementAndGet();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void refresh() {
+        long start = System.currentTimeMillis();
+        if (reloadAll.getAndSet(false)) {
+            dirtyDepartments.clear();
+            dirtyPeople.clear();
+            dirtyTitles.clear();
+            fragments.clear();
+            List<Object[]> rows = departmentRepository.findOrgChartRows();
+            render(rows);
+            log.info("Organization structure built with {} departments in {} ms",
+                    fragments.size(), System.currentTimeMillis() - start);
+            return;
+        }
+        Set<Long> ids = new HashSet<>(drain(dirtyDepartments));
+        List<Long> people = drain(dirtyPeople);
+        List<Long> titles = drain(dirtyTitles);
+        for (Map.Entry<Long, Fragment> e : fragments.entrySet()) {
+            Fragment f = e.getValue();
+            if (people.stream().anyMatch(f::hasPerson) || titles.stream().anyMatch(f::hasTitle)) {
+                ids.add(e.getKey());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        ids.forEach(fragments::remove);
+        render(departmentRepository.findOrgChartRows(ids));
+        log.debug("Organization structure refreshed {} departments in {} ms", ids.size(), System.currentTimeMillis() - start);
+    }
+
+    private static List<Long> drain(Set<Long> dirty) {
+        List<Long> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+        return ids;
+    }
+
+    /** Rows are ordered by department id; see {@link DepartmentRepository#findOrgChartRows()}. */
+    private void render(List<Object[]> rows) {
+        int i = 0;
+        while (i < rows.size()) {
+            Object[] first = rows.get(i);
+            Long deptId = (Long) first[0];
+            Long headId = (Long) first[3];
+            OrgChartPerson head = null;
+            List<OrgChartPerson> employees = new ArrayList<>();
+            Set<Long> titleIds = new HashSet<>();
+            List<Long> personIds = new ArrayList<>();
+            for (; i < rows.size() && deptId.equals(rows.get(i)[0]); i++) {
+                Object[] row = rows.get(i);
+                Long personId = (Long) row[4];
+                if (personId == null) {
+                    continue;
+                }
+                OrgChartTitle title = row[10] != null ? new OrgChartTitle((Long) row[10], (String) row[11]) : null;
+                OrgChartPerson person = new OrgChartPerson(personId, (String) row[6], (String) row[7],
+                        (String) row[8], (String) row[9], title);
+                personIds.add(personId);
+                if (title != null) titleIds.add(title.id());
+                if (personId.equals(headId)) {
+                    head = person;
+                } else {
+                    employees.add(person);
+                }
+            }
+            OrgChartDepartment department = new OrgChartDepartment(deptId, (String) first[1], (String) first[2], head, employees);
+            try {
+                fragments.put(deptId, new Fragment(objectMapper.writeValueAsBytes(department),
+                        personIds.stream().mapToLong(Long::longValue).sorted().toArray(),
+                        titleIds.stream().mapToLong(Long::longValue).sorted().toArray()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize department " + deptId, e);
+            }
+        }
+    }
+
+    private Snapshot assemble(long target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(PREFIX);
+        boolean first = true;
+        for (Fragment fragment : fragments.values()) {
+            if (!first) out.write(',');
+            out.writeBytes(fragment.json());
+            first = false;
+        }
+        out.writeBytes(SUFFIX);
+        byte[] body = out.toByteArray();
+        return new Snapshot(body, etagOf(body), target);
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + java.util.HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Fragment(byte[] json, long[] people, long[] titles) {
+        boolean hasPerson(Long id) {
+            return Arrays.binarySearch(people, id) >= 0;
+        }
+
+        boolean hasTitle(Long id) {
+            return Arrays.binarySearch(titles, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.model.Department;
+import com.example.personnelservice.model.Person;
+import com.example.personnelservice.model.Title;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA callbacks that tell {@link OrganizationStructureCache} which parts of the chart an entity
+ * write touched. The cache is looked up lazily because Hibernate builds listeners while the
+ * entity manager factory the cache's repository needs is still being created.
+ */
+@Component
+public class OrganizationStructureListener {
+
+    private final ObjectProvider<OrganizationStructureCache> cache;
+
+    public OrganizationStructureListener(ObjectProvider<OrganizationStructureCache> cache) {
+        this.cache = cache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        OrganizationStructureCache target = cache.getIfAvailable();
+        if (target == null) {
+            return;
+        }
+        if (entity instanceof Person person) {
+            target.personChanged(person.getId(), person.getDepartment() != null ? person.getDepartment().getId() : null);
+        } else if (entity instanceof Department department) {
+            target.departmentChanged(department.getId());
+        } else if (entity instanceof Title title) {
+            target.titleChanged(title.getId());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.personnelservice.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token for cursor-paginated people listings. A keyset cursor carries the sort
+ * column, direction and the last row's sort value and id; a ranked cursor (free-text search)
+ * carries the position in the ranked hit list. Encoded as URL-safe base64 so clients treat it
+ * as opaque.
+ */
+record PeopleCursor(String sortBy, Sort.Direction direction, String value, Long id, int offset) {
+
+    private static final String SEPARATOR = "\u001F";
+    private static final String KEYSET = "k";
+    private static final String RANKED = "r";
+
+    static PeopleCursor keyset(String sortBy, Sort.Direction direction, String value, Long id) {
+        return new PeopleCursor(sortBy, direction, value, id, 0);
+    }
+
+    static PeopleCursor ranked(int offset) {
+        return new PeopleCursor(null, null, null, null, offset);
+    }
+
+    String encode() {
+        String raw = sortBy == null
+                ? RANKED + SEPARATOR + offset
+                : String.join(SEPARATOR, KEYSET, sortBy, direction.name(), String.valueOf(id), value != null ? value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns null for a missing or blank cursor, i.e. the first page. */
+    static PeopleCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 5);
+            if (RANKED.equals(parts[0]) && parts.length == 2) {
+                return ranked(Integer.parseInt(parts[1]));
+            }
+            if (KEYSET.equals(parts[0]) && parts.length == 5) {
+                return keyset(parts[1], Sort.Direction.valueOf(parts[2]), parts[4], Long.valueOf(parts[3]));
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.model.Department;
+import com.example.personnelservice.model.Person;
+import com.example.personnelservice.model.Title;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams the people directory out of a forward-only cursor over a flat projection, so no
+ * entities or pages are built and memory stays constant however many rows match. Rows are
+ * ordered by id and written as CSV, NDJSON or a columnar NDJSON of fixed-size row groups.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PersonExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonExportService.class);
+
+    public enum Format {
+        CSV,
+        NDJSON,
+        /** A schema line, then one line per row group holding an array of values per column. */
+        COLUMNAR
+    }
+
+    private enum Type { LONG, INT, STRING, DATE }
+
+    private record Column(String name, Type type) {
+    }
+
+    private static final List<Column> COLUMNS = List.of(
+            new Column("id", Type.LONG),
+            new Column("firstName", Type.STRING),
+            new Column("lastName", Type.STRING),
+            new Column("email", Type.STRING),
+            new Column("phoneNumber", Type.STRING),
+            new Column("departmentId", Type.LONG),
+            new Column("department", Type.STRING),
+            new Column("titleId", Type.LONG),
+            new Column("title", Type.STRING),
+            new Column("contractStartDate", Type.DATE),
+            new Column("contractEndDate", Type.DATE),
+            new Column("contractType", Type.STRING),
+            new Column("birthDate", Type.DATE),
+            new Column("gender", Type.STRING),
+            new Column("address", Type.STRING),
+            new Column("profilePictureUrl", Type.STRING),
+            new Column("salary", Type.INT),
+            new Column("nationalId", Type.STRING),
+            new Column("bankAccount", Type.STRING),
+            new Column("insuranceNumber", Type.STRING));
+
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${people.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${people.export.row-group-size:10000}")
+    private int rowGroupSize;
+
+    public PersonExportService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(Specification<Person> filter, Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long rows;
+        try (Stream<Tuple> stream = query(filter)) {
+            rows = switch (format) {
+                case CSV -> writeCsv(stream, out);
+                case NDJSON -> writeNdjson(stream, out);
+                case COLUMNAR -> writeColumnar(stream, out);
+            };
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} people as {} in {} ms", rows, format, System.currentTimeMillis() - start);
+    }
+
+    private Stream<Tuple> query(Specification<Person> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Person> root = cq.from(Person.class);
+        Join<Person, Department> department = root.join("department", JoinType.LEFT);
+        Join<Person, Title> title = root.join("title", JoinType.LEFT);
+        List<Selection<?>> select = new ArrayList<>(COLUMNS.size());
+        for (Column column : COLUMNS) {
+            select.add(switch (column.name()) {
+                case "departmentId" -> department.get("id");
+                case "department" -> department.get("name");
+                case "titleId" -> title.get("id");
+                case "title" -> title.get("name");
+                default -> root.get(column.name());
+            });
+        }
+        cq.multiselect(select).orderBy(cb.asc(root.get("id")));
+        Predicate where = filter != null ? filter.toPredicate(root, cq, cb) : null;
+        if (where != null) {
+            cq.where(where);
+        }
+        return entityManager.createQuery(cq)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private long writeCsv(Stream<Tuple> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            if (i > 0) writer.write(',');
+            writer.write(COLUMNS.get(i).name());
+        }
+        writer.write("\r\n");
+        long[] count = {0};
+        rows.forEach(row -> {
+            try {
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    if (i > 0) writer.write(',');
+                    Object value = row.get(i);
+                    if (value != null) writeCsvField(writer, value.toString());
+                }
+                writer.write("\r\n");
+                count[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+        return count[0];
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private long writeNdjson(Stream<Tuple> rows, OutputStream out) throws IOException {
+        JsonGenerator json = generator(out);
+        long[] count = {0};
+        rows.forEach(row -> {
+            try {
+                json.writeStartObject();
+                for (int i = 0; i < COLUMNS.size(); i++) {
+                    json.writeFieldName(COLUMNS.get(i).name());
+                    writeValue(json, COLUMNS.get(i).type(), row.get(i));
+                }
+                json.writeEndObject();
+                count[0]++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        json.writeRaw('\n');
+        json.flush();
+        return count[0];
+    }
+
+    private long writeColumnar(Stream<Tuple> rows, OutputStream out) throws IOException {
+        JsonGenerator json = generator(out);
+        json.writeStartObject();
+        json.writeArrayFieldStart("columns");
+        for (Column column : COLUMNS) {
+            json.writeStartObject();
+            json.writeStringField("name", column.name());
+            json.writeStringField("type", column.type().name().toLowerCase());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeNumberField("rowGroupSize", rowGroupSize);
+        json.writeEndObject();
+
+        List<Object[]> group = new ArrayList<>(Math.min(rowGroupSize, 1024));
+        long[] count = {0};
+        rows.forEach(row -> {
+            group.add(row.toArray());
+            count[0]++;
+            if (group.size() == rowGroupSize) {
+                writeRowGroup(json, group);
+            }
+        });
+        writeRowGroup(json, group);
+        json.writeRaw('\n');
+        json.flush();
+        return count[0];
+    }
+
+    private static void writeRowGroup(JsonGenerator json, List<Object[]> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+        try {
+            json.writeStartObject();
+            json.writeNumberField("rows", group.size());
+            json.writeObjectFieldStart("columns");
+            for (int c = 0; c < COLUMNS.size(); c++) {
+                json.writeArrayFieldStart(COLUMNS.get(c).name());
+                for (Object[] row : group) {
+                    writeValue(json, COLUMNS.get(c).type(), row[c]);
+                }
+                json.writeEndArray();
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        group.clear();
+    }
+
+    private static void writeValue(JsonGenerator json, Type type, Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+            return;
+        }
+        switch (type) {
+            case LONG -> json.writeNumber((Long) value);
+            case INT -> json.writeNumber((Integer) value);
+            case DATE -> json.writeString(((LocalDate) value).toString());
+            default -> json.writeString(value.toString());
+        }
+    }
+
+    /** Top-level values separated by newlines, i.e. NDJSON. */
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.setRootValueSeparator(new com.fasterxml.jackson.core.io.SerializedString("\n"));
+        return json;
+    }
+}
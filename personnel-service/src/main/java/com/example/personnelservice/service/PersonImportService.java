@@ -0,0 +1,380 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.dto.PersonImportRow;
+import com.example.personnelservice.model.Department;
+import com.example.personnelservice.model.Person;
+import com.example.personnelservice.model.Title;
+import com.example.personnelservice.repository.DepartmentRepository;
+import com.example.personnelservice.repository.PersonRepository;
+import com.example.personnelservice.repository.TitleRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk creation of people from a CSV or NDJSON stream. Rows are parsed one at a time and written
+ * in chunks, each chunk in its own transaction: one query to find emails that are already taken,
+ * batched inserts, and one batched write of the provisioning intents for the chunk. Department and
+ * title names are resolved against lookups loaded once per import. A chunk the database rejects
+ * is written again row by row. Rejected rows are reported as they are found, followed by a summary line.
+ */
+@Service
+public class PersonImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonImportService.class);
+    private static final byte[] NEWLINE = {'\n'};
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final PersonRepository personRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TitleRepository titleRepository;
+    private final ProvisioningOutbox provisioningOutbox;
+    private final PersonSearchIndex personSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${people.import.chunk-size:500}")
+    private int chunkSize;
+
+    public PersonImportService(PersonRepository personRepository,
+                               DepartmentRepository departmentRepository,
+                               TitleRepository titleRepository,
+                               ProvisioningOutbox provisioningOutbox,
+                               PersonSearchIndex personSearchIndex,
+                               TransactionTemplate transactionTemplate,
+                               ObjectMapper objectMapper,
+                               Validator validator) {
+        this.personRepository = personRepository;
+        this.departmentRepository = departmentRepository;
+        this.titleRepository = titleRepository;
+        this.provisioningOutbox = provisioningOutbox;
+        this.personSearchIndex = personSearchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Imports people read from {@code in}, writing one NDJSON line per rejected row to
+     * {@code report} and a final {@code {"created":..,"failed":..,"tookMs":..}} line.
+     */
+    public void importPeople(InputStream in, Format format, OutputStream report) throws IOException {
+        long start = System.currentTimeMillis();
+        Run run = new Run(loadLookups(), report);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } catch (IOException e) {
+            run.flush();
+            run.write(Map.of("error", "Import aborted: " + e.getMessage()));
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("created", run.created);
+        summary.put("failed", run.failed);
+        summary.put("tookMs", System.currentTimeMillis() - start);
+        run.write(summary);
+        report.flush();
+        log.info("Imported {} people, {} rows rejected, in {} ms", run.created, run.failed, System.currentTimeMillis() - start);
+    }
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) values.put(header.get(i).trim(), value);
+            }
+            PersonImportRow row;
+            try {
+                row = objectMapper.convertValue(values, PersonImportRow.class);
+            } catch (IllegalArgumentException e) {
+                run.reject(csv.recordLine(), values.get("email"), "Malformed row: " + rootMessage(e));
+                continue;
+            }
+            run.add(csv.recordLine(), row);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            PersonImportRow row;
+            try {
+                row = objectMapper.readValue(line, PersonImportRow.class);
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, null, "Malformed row: " + e.getOriginalMessage());
+                continue;
+            }
+            run.add(lineNumber, row);
+        }
+    }
+
+    private Lookups loadLookups() {
+        return transactionTemplate.execute(status -> {
+            Lookups lookups = new Lookups();
+            for (Department d : departmentRepository.findAll()) {
+                DepartmentRef ref = new DepartmentRef(d.getId(), d.getName(), d.getHeadOfDepartment() != null);
+                lookups.departmentsById.put(d.getId(), ref);
+                lookups.departmentsByName.put(d.getName().toLowerCase(Locale.ROOT), ref);
+            }
+            for (Title t : titleRepository.findAll()) {
+                Long departmentId = t.getDepartment() != null ? t.getDepartment().getId() : null;
+                TitleRef ref = new TitleRef(t.getId(), t.getName(), departmentId);
+                lookups.titlesById.put(t.getId(), ref);
+                if (departmentId != null) {
+                    lookups.titlesByDepartmentAndName.put(titleKey(departmentId, t.getName()), ref);
+                }
+            }
+            return lookups;
+        });
+    }
+
+    private static String titleKey(Long departmentId, String name) {
+        return departmentId + "\u001F" + name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private static final class Lookups {
+        final Map<Long, DepartmentRef> departmentsById = new HashMap<>();
+        final Map<String, DepartmentRef> departmentsByName = new HashMap<>();
+        final Map<Long, TitleRef> titlesById = new HashMap<>();
+        final Map<String, TitleRef> titlesByDepartmentAndName = new HashMap<>();
+    }
+
+    private static final class DepartmentRef {
+        final Long id;
+        final String name;
+        boolean hasHead;
+
+        DepartmentRef(Long id, String name, boolean hasHead) {
+            this.id = id;
+            this.name = name;
+            this.hasHead = hasHead;
+        }
+    }
+
+    private record TitleRef(Long id, String name, Long departmentId) {
+    }
+
+    private record Accepted(int line, Person person, DepartmentRef department, TitleRef title) {
+        boolean isHead() {
+            return department != null && title != null && PersonService.isHeadTitle(department.name, title.name());
+        }
+    }
+
+    /** State of one import: lookups, emails seen so far, the chunk being filled and the counters. */
+    private final class Run {
+        private final Lookups lookups;
+        private final OutputStream report;
+        private final Set<String> seenEmails = new HashSet<>();
+        private final List<Accepted> chunk = new ArrayList<>();
+        int created;
+        int failed;
+
+        Run(Lookups lookups, OutputStream report) {
+            this.lookups = lookups;
+            this.report = report;
+        }
+
+        void add(int line, PersonImportRow row) throws IOException {
+            String error = firstViolation(row);
+            if (error != null) {
+                reject(line, row.getEmail(), error);
+                return;
+            }
+            if (!seenEmails.add(row.getEmail().toLowerCase(Locale.ROOT))) {
+                reject(line, row.getEmail(), "Duplicate email in import");
+                return;
+            }
+            Accepted accepted;
+            try {
+                accepted = resolve(line, row);
+            } catch (RuntimeException e) {
+                reject(line, row.getEmail(), e.getMessage());
+                return;
+            }
+            chunk.add(accepted);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private String firstViolation(PersonImportRow row) {
+            Set<ConstraintViolation<PersonImportRow>> violations = validator.validate(row);
+            return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+        }
+
+        private Accepted resolve(int line, PersonImportRow row) {
+            Person person = PersonService.fromRequest(row);
+
+            DepartmentRef department = null;
+            if (row.getDepartmentId() != null) {
+                department = lookups.departmentsById.get(row.getDepartmentId());
+                if (department == null) throw new RuntimeException("Department not found with ID: " + row.getDepartmentId());
+            } else if (row.getDepartment() != null) {
+                department = lookups.departmentsByName.get(row.getDepartment().toLowerCase(Locale.ROOT));
+                if (department == null) throw new RuntimeException("Department not found: " + row.getDepartment());
+            }
+
+            TitleRef title = null;
+            if (row.getTitleId() != null) {
+                title = lookups.titlesById.get(row.getTitleId());
+                if (title == null) throw new RuntimeException("Title not found with ID: " + row.getTitleId());
+            } else if (row.getTitle() != null) {
+                if (department == null) throw new RuntimeException("Title " + row.getTitle() + " needs a department");
+                title = lookups.titlesByDepartmentAndName.get(titleKey(department.id, row.getTitle()));
+                if (title == null) throw new RuntimeException("Title not found in " + department.name + ": " + row.getTitle());
+            }
+
+            Accepted accepted = new Accepted(line, person, department, title);
+            if (accepted.isHead()) {
+                if (department.hasHead) throw new RuntimeException("This department already has a head");
+                department.hasHead = true;
+            }
+            return accepted;
+        }
+
+        void flush() throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Accepted> batch = new ArrayList<>(chunk);
+            chunk.clear();
+            store(batch);
+            report.flush();
+        }
+
+        /**
+         * Writes a chunk in one transaction. If it fails, its rows are written again one at a time
+         * so the report names only the rows that actually fail, not the whole chunk.
+         */
+        private void store(List<Accepted> batch) throws IOException {
+            try {
+                Set<String> taken = transactionTemplate.execute(status -> persist(batch));
+                for (Accepted a : batch) {
+                    if (taken.contains(a.person().getEmail())) {
+                        reject(a.line(), a.person().getEmail(), "Email already exists");
+                    } else {
+                        created++;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // The rolled-back transaction assigned ids that no row holds any more.
+                batch.forEach(a -> a.person().setId(null));
+                if (batch.size() > 1) {
+                    log.warn("Import chunk of {} rows failed, retrying row by row: {}", batch.size(), rootMessage(e));
+                    for (Accepted a : batch) {
+                        store(List.of(a));
+                    }
+                    return;
+                }
+                Accepted a = batch.get(0);
+                reject(a.line(), a.person().getEmail(), rootMessage(e));
+                if (a.isHead()) a.department().hasHead = false;
+            }
+        }
+
+        /** Writes one chunk; returns the emails that were already taken and therefore skipped. */
+        private Set<String> persist(List<Accepted> batch) {
+            List<String> emails = new ArrayList<>(batch.size());
+            batch.forEach(a -> emails.add(a.person().getEmail()));
+            Set<String> taken = new HashSet<>(personRepository.findExistingEmails(emails));
+
+            List<Person> people = new ArrayList<>(batch.size());
+            List<Accepted> heads = new ArrayList<>();
+            Map<String, List<String>> roles = new LinkedHashMap<>();
+            for (Accepted a : batch) {
+                Person person = a.person();
+                if (taken.contains(person.getEmail())) {
+                    if (a.isHead()) a.department().hasHead = false;
+                    continue;
+                }
+                if (a.department() != null) person.setDepartment(departmentRepository.getReferenceById(a.department().id));
+                if (a.title() != null) person.setTitle(titleRepository.getReferenceById(a.title().id()));
+                if (a.department() != null && a.title() != null) {
+                    roles.put(person.getEmail(), PersonService.rolesFor(a.department().name, a.title().name()));
+                }
+                if (a.isHead()) heads.add(a);
+                people.add(person);
+            }
+            personRepository.saveAll(people);
+            for (Accepted a : heads) {
+                Department department = departmentRepository.findById(a.department().id)
+                        .orElseThrow(() -> new RuntimeException("Department not found with ID: " + a.department().id));
+                if (department.getHeadOfDepartment() != null) {
+                    throw new RuntimeException("Department " + department.getName() + " already has a head");
+                }
+                department.setHeadOfDepartment(a.person());
+            }
+            provisioningOutbox.enqueueProvisions(roles, false);
+            personSearchIndex.indexAllAfterCommit(people);
+            return taken;
+        }
+
+        void reject(int line, String email, String error) throws IOException {
+            failed++;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("line", line);
+            entry.put("email", email);
+            entry.put("error", error);
+            write(entry);
+        }
+
+        void write(Map<String, Object> entry) throws IOException {
+            report.write(objectMapper.writeValueAsBytes(entry));
+            report.write(NEWLINE);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.model.Person;
+import com.example.personnelservice.repository.PersonRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over people's names, email and phone number, serving the free-text
+ * {@code q} search of the people directory. Terms live in a sorted dictionary, so a prefix is a
+ * range scan and typo-tolerant matching walks the dictionary as an implicit trie, descending only
+ * into prefixes still within the allowed edit distance. Postings and scores are primitive arrays
+ * over dense document ordinals, so a query allocates little beyond its hit list.
+ * The index is built from the database once the application is ready and kept in sync by
+ * {@link PersonService} after each committed create, update and delete.
+ */
+@Component
+public class PersonSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonSearchIndex.class);
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final int NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PHONE = 4;
+
+    private static final int EXACT_SCORE = 4;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+
+    private static final int ID_BITS = 40;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final int MAX_SCORE = (1 << (63 - ID_BITS)) - 1;
+
+    private final PersonRepository personRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** term -> people containing it */
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    /** person id -> dense ordinal used by postings and score arrays */
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    /** ordinal -> terms indexed for that person, so updates can retract the old ones */
+    private final Map<Integer, List<String>> documents = new HashMap<>();
+    private long[] ids = new long[1024];
+    private int nextOrdinal;
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private volatile boolean ready;
+
+    public PersonSearchIndex(PersonRepository personRepository) {
+        this.personRepository = personRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = personRepository.findSearchFields();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinals.clear();
+            documents.clear();
+            nextOrdinal = 0;
+            for (Object[] row : rows) {
+                add((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("People search index built with {} people and {} terms in {} ms",
+                rows.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /** Re-indexes the person once the surrounding transaction commits. */
+    public void indexAfterCommit(Person person) {
+        Long id = person.getId();
+        String firstName = person.getFirstName();
+        String lastName = person.getLastName();
+        String email = person.getEmail();
+        String phoneNumber = person.getPhoneNumber();
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(id);
+                add(id, firstName, lastName, email, phoneNumber);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /** Indexes a batch of new people under one lock once the surrounding transaction commits. */
+    public void indexAllAfterCommit(List<Person> people) {
+        List<Person> added = List.copyOf(people);
+        List<String[]> fields = new ArrayList<>(added.size());
+        for (Person person : added) {
+            fields.add(new String[]{person.getFirstName(), person.getLastName(), person.getEmail(), person.getPhoneNumber()});
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (int i = 0; i < added.size(); i++) {
+                    String[] f = fields.get(i);
+                    remove(added.get(i).getId());
+                    add(added.get(i).getId(), f[0], f[1], f[2], f[3]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /** Drops the person from the index once the surrounding transaction commits. */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns the ids of people matching every term of the query, best match first. Each query
+     * term matches a whole indexed term, a prefix of one, or, for terms of four or more characters,
+     * a term within a small edit distance. Name hits weigh more than email or phone hits.
+     */
+    public List<Long> search(String query) {
+        List<String> terms = analyze(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Scratch s = scratch.get();
+            s.ensureCapacity(nextOrdinal);
+            IntBuffer candidates = null;
+            for (String term : terms) {
+                IntBuffer touched = new IntBuffer();
+                scoreTerm(term, s.best, touched);
+                if (candidates == null) {
+                    for (int i = 0; i < touched.size; i++) s.total[touched.values[i]] = s.best[touched.values[i]];
+                    candidates = touched;
+                } else {
+                    IntBuffer kept = new IntBuffer();
+                    for (int i = 0; i < candidates.size; i++) {
+                        int ord = candidates.values[i];
+                        if (s.best[ord] > 0) {
+                            s.total[ord] += s.best[ord];
+                            kept.add(ord);
+                        } else {
+                            s.total[ord] = 0;
+                        }
+                    }
+                    candidates = kept;
+                }
+                for (int i = 0; i < touched.size; i++) s.best[touched.values[i]] = 0;
+                if (candidates.size == 0) {
+                    return List.of();
+                }
+            }
+            // Pack (score desc, id asc) into one long so ranking is a primitive sort.
+            long[] keys = new long[candidates.size];
+            for (int i = 0; i < candidates.size; i++) {
+                int ord = candidates.values[i];
+                keys[i] = ((long) (MAX_SCORE - Math.min(s.total[ord], MAX_SCORE)) << ID_BITS) | (ids[ord] & ID_MASK);
+                s.total[ord] = 0;
+            }
+            Arrays.sort(keys);
+            List<Long> ranked = new ArrayList<>(keys.length);
+            for (long key : keys) ranked.add(key & ID_MASK);
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scoreTerm(String term, int[] best, IntBuffer touched) {
+        for (Map.Entry<String, Postings> entry : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            int match = entry.getKey().length() == term.length() ? EXACT_SCORE : PREFIX_SCORE;
+            accumulate(entry.getValue(), match, best, touched);
+        }
+        int maxDistance = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        if (maxDistance > 0) {
+            int[] firstRow = new int[term.length() + 1];
+            for (int i = 0; i <= term.length(); i++) firstRow[i] = i;
+            walk(term, maxDistance, "", null, firstRow, best, touched);
+        }
+    }
+
+    private static void accumulate(Postings docs, int match, int[] best, IntBuffer touched) {
+        for (int i = 0; i < docs.size; i++) {
+            int ord = docs.docs[i];
+            int score = match * ((docs.fields[i] & NAME) != 0 ? 3 : 1);
+            if (best[ord] == 0) touched.add(ord);
+            if (score > best[ord]) best[ord] = score;
+        }
+    }
+
+    /**
+     * Visits the children of {@code prefix} in the term dictionary, keeping one edit-distance row
+     * (query position by prefix length, with transpositions) per level. Once the whole query is
+     * within {@code limit} of a prefix, every term under it is a fuzzy hit; a prefix whose best
+     * cell already exceeds the limit is not descended into.
+     */
+    private void walk(String term, int limit, String prefix, int[] grandparent, int[] parent, int[] best, IntBuffer touched) {
+        int m = term.length();
+        String key = postings.higherKey(prefix);
+        while (key != null && key.startsWith(prefix) && key.length() > prefix.length()) {
+            char c = key.charAt(prefix.length());
+            String child = prefix + c;
+            int j = child.length();
+            int[] row = new int[m + 1];
+            row[0] = j;
+            int rowMin = row[0];
+            for (int i = 1; i <= m; i++) {
+                int cost = term.charAt(i - 1) == c ? 0 : 1;
+                int v = Math.min(Math.min(parent[i] + 1, row[i - 1] + 1), parent[i - 1] + cost);
+                if (grandparent != null && i > 1 && term.charAt(i - 1) == prefix.charAt(j - 2) && term.charAt(i - 2) == c) {
+                    v = Math.min(v, grandparent[i - 2] + 1);
+                }
+                row[i] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            String upper = child + Character.MAX_VALUE;
+            if (row[m] <= limit) {
+                for (Postings docs : postings.subMap(child, true, upper, false).values()) {
+                    accumulate(docs, FUZZY_SCORE, best, touched);
+                }
+            } else if (rowMin <= limit && j < m + limit) {
+                walk(term, limit, child, parent, row, best, touched);
+            }
+            key = postings.ceilingKey(upper);
+        }
+    }
+
+    private void add(Long id, String firstName, String lastName, String email, String phoneNumber) {
+        Map<String, Integer> fields = new HashMap<>();
+        for (String t : analyze(firstName)) fields.merge(t, NAME, (a, b) -> a | b);
+        for (String t : analyze(lastName)) fields.merge(t, NAME, (a, b) -> a | b);
+        for (String t : analyze(email)) fields.merge(t, EMAIL, (a, b) -> a | b);
+        if (phoneNumber != null) {
+            for (String t : analyze(phoneNumber)) fields.merge(t, PHONE, (a, b) -> a | b);
+            String digits = phoneNumber.replaceAll("\\D", "");
+            if (!digits.isEmpty()) fields.merge(digits, PHONE, (a, b) -> a | b);
+        }
+        int ord = ordinals.computeIfAbsent(id, k -> {
+            if (nextOrdinal == ids.length) ids = Arrays.copyOf(ids, ids.length * 2);
+            ids[nextOrdinal] = k;
+            return nextOrdinal++;
+        });
+        for (Map.Entry<String, Integer> field : fields.entrySet()) {
+            postings.computeIfAbsent(field.getKey(), k -> new Postings()).add(ord, field.getValue());
+        }
+        documents.put(ord, new ArrayList<>(fields.keySet()));
+    }
+
+    private void remove(Long id) {
+        Integer ord = ordinals.get(id);
+        List<String> terms = ord != null ? documents.remove(ord) : null;
+        if (terms == null) return;
+        for (String term : terms) {
+            Postings docs = postings.get(term);
+            if (docs == null) continue;
+            docs.remove(ord);
+            if (docs.size == 0) postings.remove(term);
+        }
+    }
+
+    private static List<String> analyze(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = text.chars().allMatch(ch -> ch < 0x80)
+                ? text.toLowerCase(Locale.ROOT)
+                : DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String t : SPLIT.split(folded)) {
+            if (!t.isEmpty()) terms.add(t);
+        }
+        return terms;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Postings {
+        int[] docs = new int[2];
+        byte[] fields = new byte[2];
+        int size;
+
+        void add(int doc, int field) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = (byte) field;
+            size++;
+        }
+
+        void remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == doc) {
+                    size--;
+                    docs[i] = docs[size];
+                    fields[i] = fields[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class IntBuffer {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+
+    /** Per-thread score accumulators; every search leaves them zeroed for the next one. */
+    private static final class Scratch {
+        int[] best = new int[0];
+        int[] total = new int[0];
+
+        void ensureCapacity(int capacity) {
+            if (best.length < capacity) {
+                best = new int[capacity + capacity / 4];
+                total = new int[best.length];
+            }
+        }
+    }
+}
@@ -1,19 +1,20 @@
 package com.example.personnelservice.service;
 
 import com.example.personnelservice.dto.CreatePersonRequest;
+import com.example.personnelservice.dto.CursorPage;
 import com.example.personnelservice.dto.UpdatePersonRequest;
 import com.example.personnelservice.model.Department;
 import com.example.personnelservice.model.Person;
 import com.example.personnelservice.model.Title;
-import com.example.personnelservice.model.Meeting;
-import com.example.personnelservice.model.Task;
 import com.example.personnelservice.repository.DepartmentRepository;
 import com.example.personnelservice.repository.PersonRepository;
 import com.example.personnelservice.repository.TitleRepository;
 import com.example.personnelservice.repository.MeetingRepository;
 import com.example.personnelservice.repository.TaskRepository;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -31,7 +32,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 
 @Service
 @Transactional
@@ -43,27 +50,82 @@ public class PersonService {
     private final TitleRepository titleRepository;
     private final MeetingRepository meetingRepository;
     private final TaskRepository taskRepository;
-    private final com.example.personnelservice.service.AuthService authService;
-    private final RabbitTemplate rabbitTemplate;
+    private final ProvisioningOutbox provisioningOutbox;
+    private final EventOutbox eventOutbox;
+    private final PersonSearchIndex personSearchIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public PersonService(PersonRepository personRepository, 
                         DepartmentRepository departmentRepository, 
                         TitleRepository titleRepository,
                         MeetingRepository meetingRepository,
                         TaskRepository taskRepository,
-                        com.example.personnelservice.service.AuthService authService,
-                        RabbitTemplate rabbitTemplate) {
+                        ProvisioningOutbox provisioningOutbox,
+                        EventOutbox eventOutbox,
+                        PersonSearchIndex personSearchIndex) {
         this.personRepository = personRepository;
         this.departmentRepository = departmentRepository;
         this.titleRepository = titleRepository;
         this.meetingRepository = meetingRepository;
         this.taskRepository = taskRepository;
-        this.authService = authService;
-        this.rabbitTemplate = rabbitTemplate;
+        this.provisioningOutbox = provisioningOutbox;
+        this.eventOutbox = eventOutbox;
+        this.personSearchIndex = personSearchIndex;
     }
 
     public Person createPerson(CreatePersonRequest request) {
         log.info("Creating person {}", request.getEmail());
+        Person person = fromRequest(request);
+
+        Department targetDepartment = null;
+        if (request.getDepartmentId() != null) {
+            targetDepartment = departmentRepository.findById(request.getDepartmentId())
+                    .orElseThrow(() -> new RuntimeException("Department not found with ID: " + request.getDepartmentId()));
+            person.setDepartment(targetDepartment);
+        }
+
+        Title targetTitle = null;
+        if (request.getTitleId() != null) {
+            targetTitle = titleRepository.findById(request.getTitleId())
+                    .orElseThrow(() -> new RuntimeException("Title not found with ID: " + request.getTitleId()));
+            person.setTitle(targetTitle);
+        }
+
+        if (targetDepartment != null && targetTitle != null) {
+            String expectedHeadTitle = "Head of " + targetDepartment.getName();
+            if (expectedHeadTitle.equalsIgnoreCase(targetTitle.getName())) {
+                if (targetDepartment.getHeadOfDepartment() != null) {
+                    throw new RuntimeException("This department already has a head");
+                }
+            }
+        }
+
+        Person saved = personRepository.save(person);
+        personSearchIndex.indexAfterCommit(saved);
+        log.info("Person persisted {}", saved.getId());
+
+        if (targetDepartment != null && targetTitle != null) {
+            java.util.List<String> roles = rolesFor(targetDepartment, targetTitle);
+            log.info("Provisioning user {} with roles {}", saved.getEmail(), roles);
+            provisioningOutbox.enqueueProvision(saved.getEmail(), roles, false);
+        }
+
+        if (targetDepartment != null && targetTitle != null) {
+            String expectedHeadTitle = "Head of " + targetDepartment.getName();
+            if (expectedHeadTitle.equalsIgnoreCase(targetTitle.getName())) {
+                targetDepartment.setHeadOfDepartment(saved);
+                departmentRepository.save(targetDepartment);
+                log.info("Department head set {} -> {}", targetDepartment.getId(), saved.getId());
+            }
+        }
+
+        return saved;
+    }
+
+    /** Copies the scalar fields of a create request onto a new, detached person. */
+    static Person fromRequest(CreatePersonRequest request) {
         Person person = new Person();
         if (request.getFirstName() != null) person.setFirstName(request.getFirstName());
         if (request.getLastName() != null) person.setLastName(request.getLastName());
@@ -109,115 +171,213 @@ public class PersonService {
                 throw new RuntimeException("Invalid contract end date format: " + request.getContractEndDate());
             }
         }
+        return person;
+    }
 
-        Department targetDepartment = null;
-        if (request.getDepartmentId() != null) {
-            targetDepartment = departmentRepository.findById(request.getDepartmentId())
-                    .orElseThrow(() -> new RuntimeException("Department not found with ID: " + request.getDepartmentId()));
-            person.setDepartment(targetDepartment);
-        }
+    public Page<Person> findPeopleWithFilters(
+            String searchQuery, String firstName, String lastName, String email, String phoneNumber,
+            Long departmentId, Long titleId, String gender, String address,
+            LocalDate contractStartDateFrom, LocalDate contractStartDateTo,
+            LocalDate birthDateFrom, LocalDate birthDateTo, Pageable pageable) {
+        
+        log.info("Searching people with filters");
+        List<Specification<Person>> filters = buildFilters(firstName, lastName, email, phoneNumber, departmentId, titleId,
+                gender, address, contractStartDateFrom, contractStartDateTo, birthDateFrom, birthDateTo);
 
-        Title targetTitle = null;
-        if (request.getTitleId() != null) {
-            targetTitle = titleRepository.findById(request.getTitleId())
-                    .orElseThrow(() -> new RuntimeException("Title not found with ID: " + request.getTitleId()));
-            person.setTitle(targetTitle);
+        boolean hasQuery = searchQuery != null && !searchQuery.trim().isEmpty();
+        if (hasQuery && personSearchIndex.isReady()) {
+            return searchRanked(searchQuery, filters, pageable, pageable.getOffset());
         }
-
-        if (targetDepartment != null && targetTitle != null) {
-            String expectedHeadTitle = "Head of " + targetDepartment.getName();
-            if (expectedHeadTitle.equalsIgnoreCase(targetTitle.getName())) {
-                if (targetDepartment.getHeadOfDepartment() != null) {
-                    throw new RuntimeException("This department already has a head");
-                }
-            }
+        if (hasQuery) {
+            filters.add(likeQuery(searchQuery));
         }
+        return personRepository.findAll(Specification.allOf(filters), pageable);
+    }
 
-        Person saved = personRepository.save(person);
-        log.info("Person persisted {}", saved.getId());
+    /**
+     * Keyset variant of {@link #findPeopleWithFilters}: instead of an offset, each page continues
+     * after the sort key and id of the previous page's last row, so no page needs a deep OFFSET
+     * scan and the total count is only computed when asked for. Free-text queries page through
+     * the search index's ranked hits instead.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Person> findPeopleAfterCursor(
+            String searchQuery, String firstName, String lastName, String email, String phoneNumber,
+            Long departmentId, Long titleId, String gender, String address,
+            LocalDate contractStartDateFrom, LocalDate contractStartDateTo,
+            LocalDate birthDateFrom, LocalDate birthDateTo,
+            String sortBy, Sort.Direction direction, String cursor, int size, boolean withTotal) {
+
+        List<Specification<Person>> filters = buildFilters(firstName, lastName, email, phoneNumber, departmentId, titleId,
+                gender, address, contractStartDateFrom, contractStartDateTo, birthDateFrom, birthDateTo);
+        PeopleCursor after = PeopleCursor.decode(cursor);
+
+        if (searchQuery != null && !searchQuery.trim().isEmpty() && personSearchIndex.isReady()) {
+            int offset = after != null ? after.offset() : 0;
+            Page<Person> page = searchRanked(searchQuery, filters, PageRequest.of(0, size), offset);
+            int next = offset + page.getNumberOfElements();
+            boolean hasNext = next < page.getTotalElements();
+            return new CursorPage<>(page.getContent(), size, hasNext ? PeopleCursor.ranked(next).encode() : null, hasNext,
+                    withTotal ? page.getTotalElements() : null);
+        }
+        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
+            filters.add(likeQuery(searchQuery));
+        }
+        if (!KEYSET_SORTS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cursor pagination supports sortBy " + KEYSET_SORTS);
+        }
+        Long total = withTotal ? personRepository.count(Specification.allOf(filters)) : null;
+
+        List<Specification<Person>> seek = new ArrayList<>(filters);
+        if (after != null) {
+            if (!sortBy.equals(after.sortBy()) || direction != after.direction()) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            seek.add(seekAfter(sortBy, direction, after.value(), after.id()));
+        }
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+        List<Person> rows = personRepository.findBy(Specification.allOf(seek), q -> q.sortBy(sort).limit(size + 1).project("department", "title", "title.department").all());
+        boolean hasNext = rows.size() > size;
+        List<Person> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Person last = content.get(content.size() - 1);
+            nextCursor = PeopleCursor.keyset(sortBy, direction, sortValue(last, sortBy), last.getId()).encode();
+        }
+        return new CursorPage<>(content, size, nextCursor, hasNext, total);
+    }
 
-        if (targetDepartment != null && targetTitle != null) {
-            java.util.List<String> roles = new java.util.ArrayList<>();
-            boolean isHead = ("Head of " + targetDepartment.getName()).equalsIgnoreCase(targetTitle.getName());
-            boolean isHr = "HR".equalsIgnoreCase(targetDepartment.getName());
-            if (isHr) roles.add("HR");
-            if (isHead) roles.add("HEAD");
-            if (roles.isEmpty()) roles.add("EMPLOYEE");
-            log.info("Provisioning user {} with roles {}", saved.getEmail(), roles);
-            authService.provision(saved.getEmail(), roles);
-        }
+    private static final java.util.Set<String> KEYSET_SORTS = java.util.Set.of("id", "firstName", "lastName", "email");
 
-        if (targetDepartment != null && targetTitle != null) {
-            String expectedHeadTitle = "Head of " + targetDepartment.getName();
-            if (expectedHeadTitle.equalsIgnoreCase(targetTitle.getName())) {
-                targetDepartment.setHeadOfDepartment(saved);
-                departmentRepository.save(targetDepartment);
-                log.info("Department head set {} -> {}", targetDepartment.getId(), saved.getId());
-            }
-        }
+    private static String sortValue(Person person, String sortBy) {
+        return switch (sortBy) {
+            case "firstName" -> person.getFirstName();
+            case "lastName" -> person.getLastName();
+            case "email" -> person.getEmail();
+            default -> null;
+        };
+    }
 
-        return saved;
+    /** (key, id) strictly after the cursor in the requested direction; id breaks ties. */
+    private static Specification<Person> seekAfter(String sortBy, Sort.Direction direction, String value, Long id) {
+        boolean asc = direction.isAscending();
+        return (root, cq, cb) -> {
+            Path<Long> idPath = root.get("id");
+            Predicate idAfter = asc ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            if ("id".equals(sortBy)) {
+                return idAfter;
+            }
+            Path<String> key = root.get(sortBy);
+            return cb.or(
+                    asc ? cb.greaterThan(key, value) : cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), idAfter));
+        };
     }
 
-    public Page<Person> findPeopleWithFilters(
+    private static Specification<Person> likeQuery(String searchQuery) {
+        String searchLower = searchQuery.toLowerCase();
+        return (root, cq, cb) -> cb.or(
+            cb.like(cb.lower(root.get("firstName")), "%" + searchLower + "%"),
+            cb.like(cb.lower(root.get("lastName")), "%" + searchLower + "%"),
+            cb.like(cb.lower(root.get("email")), "%" + searchLower + "%"),
+            cb.like(cb.lower(root.get("phoneNumber")), "%" + searchLower + "%")
+        );
+    }
+
+    /**
+     * The filters of {@link #findPeopleWithFilters} as one specification, for callers that stream
+     * the matches themselves. A free-text query is matched with LIKE rather than the search index:
+     * a broad query can hit most of the directory, and binding every hit as a parameter would grow
+     * with it.
+     */
+    public Specification<Person> peopleFilter(
             String searchQuery, String firstName, String lastName, String email, String phoneNumber,
             Long departmentId, Long titleId, String gender, String address,
             LocalDate contractStartDateFrom, LocalDate contractStartDateTo,
-            LocalDate birthDateFrom, LocalDate birthDateTo, Pageable pageable) {
+            LocalDate birthDateFrom, LocalDate birthDateTo) {
+        List<Specification<Person>> filters = buildFilters(firstName, lastName, email, phoneNumber, departmentId, titleId,
+                gender, address, contractStartDateFrom, contractStartDateTo, birthDateFrom, birthDateTo);
+        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
+            filters.add(likeQuery(searchQuery));
+        }
+        return Specification.allOf(filters);
+    }
+
+    private List<Specification<Person>> buildFilters(
+            String firstName, String lastName, String email, String phoneNumber,
+            Long departmentId, Long titleId, String gender, String address,
+            LocalDate contractStartDateFrom, LocalDate contractStartDateTo,
+            LocalDate birthDateFrom, LocalDate birthDateTo) {
+        List<Specification<Person>> filters = new ArrayList<>();
         
-        log.info("Searching people with filters");
-        return personRepository.findAll((root, cq, cb) -> {
-            List<Predicate> filters = new ArrayList<>();
-            
-            if (searchQuery != null && !searchQuery.trim().isEmpty()) {
-                String searchLower = searchQuery.toLowerCase();
-                filters.add(cb.or(
-                    cb.like(cb.lower(root.get("firstName")), "%" + searchLower + "%"),
-                    cb.like(cb.lower(root.get("lastName")), "%" + searchLower + "%"),
-                    cb.like(cb.lower(root.get("email")), "%" + searchLower + "%"),
-                    cb.like(cb.lower(root.get("phoneNumber")), "%" + searchLower + "%")
-                ));
-            }
-            
-            if (firstName != null && !firstName.trim().isEmpty()) {
-                filters.add(cb.like(cb.lower(root.get("firstName")), "%" + firstName.toLowerCase() + "%"));
-            }
-            if (lastName != null && !lastName.trim().isEmpty()) {
-                filters.add(cb.like(cb.lower(root.get("lastName")), "%" + lastName.toLowerCase() + "%"));
-            }
-            if (email != null && !email.trim().isEmpty()) {
-                filters.add(cb.like(cb.lower(root.get("email")), "%" + email.toLowerCase() + "%"));
-            }
-            if (phoneNumber != null && !phoneNumber.trim().isEmpty()) {
-                filters.add(cb.like(cb.lower(root.get("phoneNumber")), "%" + phoneNumber.toLowerCase() + "%"));
-            }
-            if (departmentId != null) {
-                filters.add(cb.equal(root.get("department").get("id"), departmentId));
-            }
-            if (titleId != null) {
-                filters.add(cb.equal(root.get("title").get("id"), titleId));
-            }
-            if (gender != null && !gender.trim().isEmpty()) {
-                filters.add(cb.equal(root.get("gender"), gender));
-            }
-            if (address != null && !address.trim().isEmpty()) {
-                filters.add(cb.like(cb.lower(root.get("address")), "%" + address.toLowerCase() + "%"));
-            }
-            if (contractStartDateFrom != null) {
-                filters.add(cb.greaterThanOrEqualTo(root.get("contractStartDate"), contractStartDateFrom));
-            }
-            if (birthDateFrom != null) {
-                filters.add(cb.greaterThanOrEqualTo(root.get("birthDate"), birthDateFrom));
-            }
-            if (contractStartDateTo != null) {
-                filters.add(cb.lessThanOrEqualTo(root.get("contractStartDate"), contractStartDateTo));
-            }
-            if (birthDateTo != null) {
-                filters.add(cb.lessThanOrEqualTo(root.get("birthDate"), birthDateTo));
-            }
-            
-            return cb.and(filters.toArray(new Predicate[0]));
-        }, pageable);
+        if (firstName != null && !firstName.trim().isEmpty()) {
+            filters.add((root, cq, cb) -> cb.like(cb.lower(root.get("firstName")), "%" + firstName.toLowerCase() + "%"));
+        }
+        if (lastName != null && !lastName.trim().isEmpty()) {
+            filters.add((root, cq, cb) -> cb.like(cb.lower(root.get("lastName")), "%" + lastName.toLowerCase() + "%"));
+        }
+        if (email != null && !email.trim().isEmpty()) {
+            filters.add((root, cq, cb) -> cb.like(cb.lower(root.get("email")), "%" + email.toLowerCase() + "%"));
+        }
+        if (phoneNumber != null && !phoneNumber.trim().isEmpty()) {
+            filters.add((root, cq, cb) -> cb.like(cb.lower(root.get("phoneNumber")), "%" + phoneNumber.toLowerCase() + "%"));
+        }
+        if (departmentId != null) {
+            filters.add((root, cq, cb) -> cb.equal(root.get("department").get("id"), departmentId));
+        }
+        if (titleId != null) {
+            filters.add((root, cq, cb) -> cb.equal(root.get("title").get("id"), titleId));
+        }
+        if (gender != null && !gender.trim().isEmpty()) {
+            filters.add((root, cq, cb) -> cb.equal(root.get("gender"), gender));
+        }
+        if (address != null && !address.trim().isEmpty()) {
+            filters.add((root, cq, cb) -> cb.like(cb.lower(root.get("address")), "%" + address.toLowerCase() + "%"));
+        }
+        if (contractStartDateFrom != null) {
+            filters.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("contractStartDate"), contractStartDateFrom));
+        }
+        if (birthDateFrom != null) {
+            filters.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("birthDate"), birthDateFrom));
+        }
+        if (contractStartDateTo != null) {
+            filters.add((root, cq, cb) -> cb.lessThanOrEqualTo(root.get("contractStartDate"), contractStartDateTo));
+        }
+        if (birthDateTo != null) {
+            filters.add((root, cq, cb) -> cb.lessThanOrEqualTo(root.get("birthDate"), birthDateTo));
+        }
+
+        return filters;
+    }
+
+    /**
+     * Serves a free-text query from the search index in relevance order. Structured filters, if
+     * any, are applied with an id-only query and intersected with the ranked hits; only the
+     * requested page of people is loaded.
+     */
+    private Page<Person> searchRanked(String searchQuery, List<Specification<Person>> filters, Pageable pageable, long offset) {
+        List<Long> ranked = personSearchIndex.search(searchQuery);
+        if (!filters.isEmpty() && !ranked.isEmpty()) {
+            java.util.Set<Long> allowed = new java.util.HashSet<>(findIds(Specification.allOf(filters)));
+            ranked = ranked.stream().filter(allowed::contains).toList();
+        }
+        int from = (int) Math.min(offset, ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<Long> pageIds = ranked.subList(from, to);
+        Map<Long, Person> byId = new HashMap<>();
+        for (Person p : personRepository.findAllById(pageIds)) {
+            byId.put(p.getId(), p);
+        }
+        List<Person> content = pageIds.stream().map(byId::get).filter(java.util.Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+
+    private List<Long> findIds(Specification<Person> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Person> root = cq.from(Person.class);
+        cq.select(root.get("id")).where(spec.toPredicate(root, cq, cb));
+        return entityManager.createQuery(cq).getResultList();
     }
 
     public Optional<Person> findById(Long id) {
@@ -318,6 +478,7 @@ public class PersonService {
         }
 
         Person savedPerson = personRepository.save(person);
+        personSearchIndex.indexAfterCommit(savedPerson);
         log.info("Person saved {}", savedPerson.getId());
 
         if (!changes.isEmpty()) {
@@ -331,44 +492,20 @@ public class PersonService {
         boolean titleChanged = (oldTitleId == null ? person.getTitle() != null : (person.getTitle() == null || !oldTitleId.equals(person.getTitle().getId())));
 
         boolean roleAffectingChange = deptChanged || titleChanged;
-
-        if (targetDepartment != null && targetTitle != null && roleAffectingChange) {
-            java.util.List<String> roles = new java.util.ArrayList<>();
-            String expectedHeadTitle = "Head of " + targetDepartment.getName();
-            boolean isHeadTitle = expectedHeadTitle.equalsIgnoreCase(targetTitle.getName());
-            boolean isHr = "HR".equalsIgnoreCase(targetDepartment.getName());
-            if (isHr) roles.add("HR");
-            if (isHeadTitle) roles.add("HEAD");
-            if (roles.isEmpty()) roles.add("EMPLOYEE");
-            boolean updated = authService.updateUser(oldEmail, savedPerson.getEmail(), roles);
-            if (!updated) {
-                log.info("User not found in auth, provisioning {}", savedPerson.getEmail());
-                authService.provision(savedPerson.getEmail(), roles);
-            }
-        } else if ((oldDepartmentId == null || oldTitleId == null) && (targetDepartment != null && targetTitle != null)) {
-            java.util.List<String> roles = new java.util.ArrayList<>();
-            String expectedHeadTitle = "Head of " + targetDepartment.getName();
-            boolean isHeadTitle = expectedHeadTitle.equalsIgnoreCase(targetTitle.getName());
-            boolean isHr = "HR".equalsIgnoreCase(targetDepartment.getName());
-            if (isHr) roles.add("HR");
-            if (isHeadTitle) roles.add("HEAD");
-            if (roles.isEmpty()) roles.add("EMPLOYEE");
-            log.info("Provisioning new user {} with roles {}", savedPerson.getEmail(), roles);
-            authService.provision(savedPerson.getEmail(), roles);
-        } else if (!oldEmail.equalsIgnoreCase(savedPerson.getEmail())) {
+        boolean emailChanged = !oldEmail.equalsIgnoreCase(savedPerson.getEmail());
+        java.util.List<String> roles = targetDepartment != null && targetTitle != null
+                ? rolesFor(targetDepartment, targetTitle)
+                : null;
+
+        if (roles != null && roleAffectingChange) {
+            log.info("Syncing auth user {} -> {} with roles {}", oldEmail, savedPerson.getEmail(), roles);
+            provisioningOutbox.enqueueUpdate(oldEmail, savedPerson.getEmail(), roles, true);
+        } else if (emailChanged) {
             log.info("Updating auth email from {} to {}", oldEmail, savedPerson.getEmail());
-            authService.updateUser(oldEmail, savedPerson.getEmail(), null);
-        }
-        
-        if (savedPerson.getDepartment() != null && savedPerson.getTitle() != null) {
-            java.util.List<String> roles = new java.util.ArrayList<>();
-            boolean isHead = savedPerson.getTitle().getName().toLowerCase().startsWith("head of");
-            boolean isHr = "HR".equalsIgnoreCase(savedPerson.getDepartment().getName());
-            if (isHr) roles.add("HR");
-            if (isHead) roles.add("HEAD");
-            if (roles.isEmpty()) roles.add("EMPLOYEE");
+            provisioningOutbox.enqueueUpdate(oldEmail, savedPerson.getEmail(), roles, roles != null);
+        } else if (roles != null) {
             log.info("Ensuring user provisioned {} with roles {}", savedPerson.getEmail(), roles);
-            authService.provision(savedPerson.getEmail(), roles);
+            provisioningOutbox.enqueueProvision(savedPerson.getEmail(), roles, false);
         }
 
         if (targetDepartment != null) {
@@ -391,6 +528,24 @@ public class PersonService {
         return savedPerson;
     }
 
+    private java.util.List<String> rolesFor(Department department, Title title) {
+        return rolesFor(department.getName(), title.getName());
+    }
+
+    static java.util.List<String> rolesFor(String departmentName, String titleName) {
+        java.util.List<String> roles = new java.util.ArrayList<>();
+        boolean isHead = isHeadTitle(departmentName, titleName);
+        boolean isHr = "HR".equalsIgnoreCase(departmentName);
+        if (isHr) roles.add("HR");
+        if (isHead) roles.add("HEAD");
+        if (roles.isEmpty()) roles.add("EMPLOYEE");
+        return roles;
+    }
+
+    static boolean isHeadTitle(String departmentName, String titleName) {
+        return ("Head of " + departmentName).equalsIgnoreCase(titleName);
+    }
+
     private Map<String, Object> detectChanges(Person person, UpdatePersonRequest request) {
         Map<String, Object> changes = new HashMap<>();
         
@@ -628,54 +783,31 @@ public class PersonService {
         event.setUpdatedByName(actorName);
         event.setChanges(changeList);
 
-        rabbitTemplate.convertAndSend(RabbitMQConfig.PERSON_UPDATE_EXCHANGE, 
+        eventOutbox.enqueue(RabbitMQConfig.PERSON_UPDATE_EXCHANGE, 
                                       RabbitMQConfig.PERSON_UPDATE_ROUTING_KEY, event);
-        log.info("Person update event sent {}", person.getId());
+        log.info("Person update event recorded {}", person.getId());
         
     }
 
+    /**
+     * Detaches the person from departments, meetings and tasks with one bulk statement per
+     * relation, then removes them; all in the service transaction.
+     */
     public void deletePerson(Long id) {
         log.info("Deleting person {}", id);
         Person person = personRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Person not found with ID: " + id));
 
-        java.util.List<com.example.personnelservice.model.Department> departments = departmentRepository.findByHeadOfDepartmentId(id);
-        for (com.example.personnelservice.model.Department dept : departments) {
-            dept.setHeadOfDepartment(null);
-            departmentRepository.save(dept);
-        }
-
-        if (person.getDepartment() != null && person.getDepartment().getHeadOfDepartment() != null &&
-                person.getDepartment().getHeadOfDepartment().getId().equals(id)) {
-            person.getDepartment().setHeadOfDepartment(null);
-            departmentRepository.save(person.getDepartment());
-        }
-
-        java.util.List<Meeting> meetingsAsOrganizer = meetingRepository.findByOrganizerOrderByDayAscStartTimeAsc(person);
-        for (Meeting meeting : meetingsAsOrganizer) {
-            meeting.setOrganizer(null);
-            meetingRepository.save(meeting);
-        }
-
-        java.util.List<Meeting> meetingsAsParticipant = meetingRepository.findByParticipantsContainsOrderByDayAscStartTimeAsc(person);
-        for (Meeting meeting : meetingsAsParticipant) {
-            meeting.getParticipants().remove(person);
-            meetingRepository.save(meeting);
-        }
-
-        java.util.List<Task> tasksAsAssignee = taskRepository.findByAssigneeOrderByCreatedAtDesc(person);
-        for (Task task : tasksAsAssignee) {
-            task.setAssignee(null);
-            taskRepository.save(task);
-        }
-
-        java.util.List<Task> tasksAsCreator = taskRepository.findByCreatedByOrderByCreatedAtDesc(person);
-        for (Task task : tasksAsCreator) {
-            task.setCreatedBy(null);
-            taskRepository.save(task);
-        }
+        int headed = departmentRepository.clearHeadOfDepartment(id);
+        int organized = meetingRepository.clearOrganizer(id);
+        int attended = meetingRepository.removeParticipant(id);
+        int assigned = taskRepository.clearAssignee(id);
+        int created = taskRepository.clearCreator(id);
+        log.debug("Person {} detached from {} departments, {} organized and {} attended meetings, {} assigned and {} created tasks",
+                id, headed, organized, attended, assigned, created);
 
-        personRepository.deleteById(id);
+        personRepository.delete(person);
+        personSearchIndex.removeAfterCommit(id);
         log.info("Person deleted {}", id);
     }
 
@@ -0,0 +1,193 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.model.ProvisioningIntent;
+import com.example.personnelservice.repository.ProvisioningIntentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drains the provisioning outbox to auth-service in batches. Intents touching the same email
+ * are applied in the order they were recorded; unrelated emails are sent concurrently.
+ * Delivered intents are removed, failed ones are retried with backoff and parked as FAILED
+ * once the attempt budget is spent. One {@link #drain} stops taking new batches after
+ * {@code max-drain-time} so a large backlog does not hold a scheduler thread for minutes; the
+ * next poll picks up where it left off.
+ */
+@Component
+public class ProvisioningDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ProvisioningDispatcher.class);
+
+    private final ProvisioningIntentRepository intentRepository;
+    private final AuthService authService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${provisioning.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${provisioning.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${provisioning.outbox.max-backoff:PT5M}")
+    private Duration maxBackoff;
+
+    @Value("${provisioning.outbox.max-drain-time:PT10S}")
+    private Duration maxDrainTime;
+
+    public ProvisioningDispatcher(ProvisioningIntentRepository intentRepository,
+                                  AuthService authService,
+                                  TransactionTemplate transactionTemplate) {
+        this.intentRepository = intentRepository;
+        this.authService = authService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${provisioning.outbox.poll-interval-ms:1000}")
+    public void drain() {
+        long deadline = System.nanoTime() + maxDrainTime.toNanos();
+        List<ProvisioningIntent> batch;
+        do {
+            batch = intentRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                    ProvisioningIntent.Status.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            dispatch(batch);
+        } while (batch.size() == batchSize && System.nanoTime() - deadline < 0);
+    }
+
+    private void dispatch(List<ProvisioningIntent> batch) {
+        log.debug("Dispatching {} provisioning intents", batch.size());
+        Map<String, Mono<Void>> chains = new HashMap<>();
+        Map<Long, Throwable> failures = new ConcurrentHashMap<>();
+        List<Mono<Void>> all = new ArrayList<>();
+        List<ProvisioningIntent> provisions = new ArrayList<>();
+        Mono<Map<String, AuthService.ProvisionResult>> provisioned = Mono.defer(() -> provisionAll(provisions)).cache();
+        for (ProvisioningIntent intent : batch) {
+            String key = intent.getEmail().toLowerCase(Locale.ROOT);
+            Mono<Void> previous = chains.get(key);
+            Mono<Void> work;
+            if (previous == null && intent.getType() == ProvisioningIntent.Type.PROVISION) {
+                provisions.add(intent);
+                work = provisioned.flatMap(results -> {
+                    AuthService.ProvisionResult result = results.get(intent.getEmail());
+                    return result != null && result.error() != null
+                            ? Mono.error(new IllegalStateException(result.error()))
+                            : Mono.empty();
+                });
+            } else {
+                work = (previous != null ? previous : Mono.<Void>empty()).then(Mono.defer(() -> deliver(intent)));
+            }
+            Mono<Void> next = work
+                    .onErrorResume(e -> {
+                        failures.put(intent.getId(), e);
+                        return Mono.empty();
+                    })
+                    .cache();
+            chains.put(key, next);
+            if (intent.getNewEmail() != null) {
+                chains.put(intent.getNewEmail().toLowerCase(Locale.ROOT), next);
+            }
+            all.add(next);
+        }
+        Mono.when(all).block(Duration.ofMinutes(1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (ProvisioningIntent intent : batch) {
+                Throwable error = failures.get(intent.getId());
+                if (error == null) {
+                    completed(intent);
+                } else {
+                    failed(intent, error);
+                }
+            }
+        });
+    }
+
+    /** First-in-line provisions of a batch go to auth-service together, in one call. */
+    private Mono<Map<String, AuthService.ProvisionResult>> provisionAll(List<ProvisioningIntent> provisions) {
+        if (provisions.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        List<Map<String, Object>> users = provisions.stream().map(i -> provisionBody(i, i.getEmail())).toList();
+        return authService.provisionBatchCall(users).map(results -> {
+            Map<String, AuthService.ProvisionResult> byEmail = new HashMap<>();
+            for (AuthService.ProvisionResult result : results) {
+                byEmail.put(result.email(), result);
+            }
+            return byEmail;
+        });
+    }
+
+    private Mono<Void> deliver(ProvisioningIntent intent) {
+        if (intent.getType() == ProvisioningIntent.Type.PROVISION) {
+            return authService.provisionCall(provisionBody(intent, intent.getEmail()), intent.getIdempotencyKey()).then();
+        }
+        Map<String, Object> req = new HashMap<>();
+        req.put("email", intent.getEmail());
+        if (intent.getNewEmail() != null) req.put("newEmail", intent.getNewEmail());
+        if (intent.getRoleList() != null) req.put("roles", intent.getRoleList());
+        return authService.updateUserCall(req, intent.getIdempotencyKey())
+                .flatMap(updated -> {
+                    if (updated || !intent.isProvisionIfMissing() || intent.getRoleList() == null) {
+                        return Mono.empty();
+                    }
+                    String target = intent.getNewEmail() != null ? intent.getNewEmail() : intent.getEmail();
+                    log.info("User not found in auth, provisioning {}", target);
+                    return authService.provisionCall(provisionBody(intent, target), intent.getIdempotencyKey()).then();
+                });
+    }
+
+    private Map<String, Object> provisionBody(ProvisioningIntent intent, String email) {
+        Map<String, Object> req = new HashMap<>();
+        req.put("email", email);
+        req.put("roles", intent.getRoleList());
+        if (intent.isSuppressEmail()) req.put("suppressEmail", true);
+        return req;
+    }
+
+    private void completed(ProvisioningIntent intent) {
+        intentRepository.findById(intent.getId()).ifPresent(current -> {
+            if (current.getVersion().equals(intent.getVersion())) {
+                intentRepository.delete(current);
+            } else {
+                log.debug("Intent {} changed while in flight, keeping it for redelivery", intent.getId());
+            }
+        });
+    }
+
+    private void failed(ProvisioningIntent intent, Throwable error) {
+        intentRepository.findById(intent.getId()).ifPresent(current -> {
+            int attempts = current.getAttempts() + 1;
+            current.setAttempts(attempts);
+            current.setLastError(error.getMessage() != null && error.getMessage().length() > 250
+                    ? error.getMessage().substring(0, 250)
+                    : error.getMessage());
+            if (attempts >= maxAttempts) {
+                current.setStatus(ProvisioningIntent.Status.FAILED);
+                log.error("Provisioning intent {} for {} failed permanently: {}", current.getId(), current.getEmail(), error.getMessage());
+            } else {
+                long backoffSeconds = Math.min(maxBackoff.getSeconds(), 1L << Math.min(attempts, 20));
+                current.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds));
+                log.warn("Provisioning intent {} for {} failed (attempt {}), retrying in {}s: {}",
+                        current.getId(), current.getEmail(), attempts, backoffSeconds, error.getMessage());
+            }
+            intentRepository.save(current);
+        });
+    }
+}
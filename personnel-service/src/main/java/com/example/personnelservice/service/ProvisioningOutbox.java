@@ -0,0 +1,93 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.model.ProvisioningIntent;
+import com.example.personnelservice.repository.ProvisioningIntentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records auth-service provisioning intents in the caller's transaction so they commit
+ * (or roll back) together with the person change. {@link ProvisioningDispatcher} delivers them.
+ * A new intent for an email that already has one pending of the same type is merged into it.
+ */
+@Service
+public class ProvisioningOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(ProvisioningOutbox.class);
+
+    private final ProvisioningIntentRepository intentRepository;
+
+    public ProvisioningOutbox(ProvisioningIntentRepository intentRepository) {
+        this.intentRepository = intentRepository;
+    }
+
+    @Transactional
+    public void enqueueProvision(String email, List<String> roles, boolean suppressEmail) {
+        ProvisioningIntent intent = pendingOrNew(ProvisioningIntent.Type.PROVISION, email);
+        intent.setRoleList(roles);
+        intent.setSuppressEmail(suppressEmail);
+        intentRepository.save(intent);
+        log.info("Provisioning intent recorded for {} with roles {}", email, roles);
+    }
+
+    /**
+     * Bulk variant of {@link #enqueueProvision} for imports: pending intents for the given emails
+     * are found with one query and everything is written in a single batch.
+     */
+    @Transactional
+    public void enqueueProvisions(Map<String, List<String>> rolesByEmail, boolean suppressEmail) {
+        if (rolesByEmail.isEmpty()) {
+            return;
+        }
+        Map<String, ProvisioningIntent> intents = new LinkedHashMap<>();
+        for (ProvisioningIntent existing : intentRepository.findByStatusAndTypeAndEmailInOrderByIdAsc(
+                ProvisioningIntent.Status.PENDING, ProvisioningIntent.Type.PROVISION, rolesByEmail.keySet())) {
+            existing.setNextAttemptAt(LocalDateTime.now());
+            intents.put(existing.getEmail(), existing);
+        }
+        rolesByEmail.forEach((email, roles) -> {
+            ProvisioningIntent intent = intents.computeIfAbsent(email, e -> newIntent(ProvisioningIntent.Type.PROVISION, e));
+            intent.setRoleList(roles);
+            intent.setSuppressEmail(suppressEmail);
+        });
+        intentRepository.saveAll(intents.values());
+        log.info("Provisioning intents recorded for {} users", intents.size());
+    }
+
+    @Transactional
+    public void enqueueUpdate(String email, String newEmail, List<String> roles, boolean provisionIfMissing) {
+        ProvisioningIntent intent = pendingOrNew(ProvisioningIntent.Type.UPDATE, email);
+        if (newEmail != null) intent.setNewEmail(newEmail);
+        if (roles != null) intent.setRoleList(roles);
+        intent.setProvisionIfMissing(intent.isProvisionIfMissing() || provisionIfMissing);
+        intentRepository.save(intent);
+        log.info("User update intent recorded for {} -> {} with roles {}", email, newEmail, roles);
+    }
+
+    private ProvisioningIntent pendingOrNew(ProvisioningIntent.Type type, String email) {
+        return intentRepository
+                .findFirstByStatusAndTypeAndEmailIgnoreCaseOrderByIdDesc(ProvisioningIntent.Status.PENDING, type, email)
+                .map(existing -> {
+                    log.debug("Merging {} intent for {} into pending intent {}", type, email, existing.getId());
+                    existing.setNextAttemptAt(LocalDateTime.now());
+                    return existing;
+                })
+                .orElseGet(() -> newIntent(type, email));
+    }
+
+    private static ProvisioningIntent newIntent(ProvisioningIntent.Type type, String email) {
+        ProvisioningIntent intent = new ProvisioningIntent();
+        intent.setType(type);
+        intent.setEmail(email);
+        intent.setIdempotencyKey(UUID.randomUUID().toString());
+        return intent;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.personnelservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Continuation token for task listings, which are ordered newest first: the created-at and id
+ * of the last task on the previous page. Encoded as URL-safe base64 so clients treat it as opaque.
+ */
+record TaskCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "\u001F";
+    private static final String PREFIX = "t";
+
+    String encode() {
+        String raw = String.join(SEPARATOR, PREFIX, createdAt.toString(), String.valueOf(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns null for a missing or blank cursor, i.e. the first page. */
+    static TaskCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+            if (PREFIX.equals(parts[0]) && parts.length == 3) {
+                return new TaskCursor(LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+}
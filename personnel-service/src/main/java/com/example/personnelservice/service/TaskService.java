@@ -1,35 +1,42 @@
 package com.example.personnelservice.service;
 
+import com.example.personnelservice.dto.CursorPage;
+import com.example.personnelservice.dto.TaskFilter;
 import com.example.personnelservice.model.Department;
 import com.example.personnelservice.model.Person;
 import com.example.personnelservice.model.Task;
 import com.example.personnelservice.repository.*;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.personnelservice.config.RabbitMQConfig;
 import com.example.personnelservice.event.TaskAssignmentEvent;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final TaskRepository taskRepository;
     private final PersonRepository personRepository;
     private final DepartmentRepository departmentRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final EventOutbox eventOutbox;
 
     public TaskService(TaskRepository taskRepository,
                        PersonRepository personRepository,
                        DepartmentRepository departmentRepository,
-                       RabbitTemplate rabbitTemplate) {
+                       EventOutbox eventOutbox) {
         this.taskRepository = taskRepository;
         this.personRepository = personRepository;
         this.departmentRepository = departmentRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.eventOutbox = eventOutbox;
     }
 
     public Person getCurrentUser(String email) {
@@ -61,33 +68,105 @@ public class TaskService {
         Task savedTask = taskRepository.save(task);
         
         if (savedTask.getAssignee() != null) {
-            try {
-                sendTaskAssignmentEvent(savedTask);
-            } catch (Exception e) {
-                
-            }
+            sendTaskAssignmentEvent(savedTask);
         }
         
         return savedTask;
     }
 
-    public List<Task> getTasksForAssignee(String email) {
-        Person p = personRepository.findByEmail(email);
-        return taskRepository.findByAssigneeOrderByCreatedAtDesc(p);
+    /** Tasks matching the filter, newest first. */
+    @Transactional(readOnly = true)
+    public CursorPage<Task> findTasks(TaskFilter filter, String cursor, int size, boolean withTotal) {
+        return findTasks(filters(filter), cursor, size, withTotal);
     }
 
-    public List<Task> getTasksForUser(String email) {
-        Person p = personRepository.findByEmail(email);
-        List<Task> createdTasks = taskRepository.findByCreatedByOrderByCreatedAtDesc(p);
-        List<Task> assignedTasks = taskRepository.findByAssigneeOrderByCreatedAtDesc(p);
-        
-        java.util.LinkedHashSet<Task> allTasks = new java.util.LinkedHashSet<>();
-        allTasks.addAll(createdTasks);
-        allTasks.addAll(assignedTasks);
-        
-        return allTasks.stream()
-            .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-            .collect(Collectors.toList());
+    /** Tasks assigned to the person, newest first. */
+    @Transactional(readOnly = true)
+    public CursorPage<Task> findTasksForAssignee(String email, TaskFilter filter, String cursor, int size, boolean withTotal) {
+        Long personId = personRepository.findIdByEmail(email).orElse(null);
+        if (personId == null) {
+            return new CursorPage<>(List.of(), size, null, false, withTotal ? 0L : null);
+        }
+        List<Specification<Task>> specs = filters(filter);
+        specs.add((root, cq, cb) -> cb.equal(root.get("assignee").get("id"), personId));
+        return findTasks(specs, cursor, size, withTotal);
+    }
+
+    /** Tasks the person created or is assigned, newest first. */
+    @Transactional(readOnly = true)
+    public CursorPage<Task> findTasksForUser(String email, TaskFilter filter, String cursor, int size, boolean withTotal) {
+        Long personId = personRepository.findIdByEmail(email).orElse(null);
+        if (personId == null) {
+            return new CursorPage<>(List.of(), size, null, false, withTotal ? 0L : null);
+        }
+        List<Specification<Task>> specs = filters(filter);
+        specs.add((root, cq, cb) -> cb.or(
+                cb.equal(root.get("assignee").get("id"), personId),
+                cb.equal(root.get("createdBy").get("id"), personId)));
+        return findTasks(specs, cursor, size, withTotal);
+    }
+
+    private CursorPage<Task> findTasks(List<Specification<Task>> filters, String cursor, int size, boolean withTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TaskCursor after = TaskCursor.decode(cursor);
+        Long total = withTotal ? taskRepository.count(Specification.allOf(filters)) : null;
+        List<Specification<Task>> seek = new ArrayList<>(filters);
+        if (after != null) {
+            seek.add(olderThan(after));
+        }
+        List<Task> rows = taskRepository.findBy(Specification.allOf(seek), q -> q.sortBy(NEWEST_FIRST).limit(size + 1)
+                .project("department", "createdBy", "createdBy.department", "createdBy.title", "createdBy.title.department",
+                        "assignee", "assignee.department", "assignee.title", "assignee.title.department")
+                .all());
+        boolean hasNext = rows.size() > size;
+        List<Task> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Task last = content.get(content.size() - 1);
+            nextCursor = new TaskCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(content, size, nextCursor, hasNext, total);
+    }
+
+    /** (createdAt, id) strictly before the cursor; id breaks ties between tasks created in the same instant. */
+    private static Specification<Task> olderThan(TaskCursor after) {
+        return (root, cq, cb) -> {
+            Path<LocalDateTime> createdAt = root.get("createdAt");
+            return cb.or(
+                    cb.lessThan(createdAt, after.createdAt()),
+                    cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(root.get("id"), after.id())));
+        };
+    }
+
+    private static List<Specification<Task>> filters(TaskFilter filter) {
+        List<Specification<Task>> specs = new ArrayList<>();
+        if (filter == null) {
+            return specs;
+        }
+        if (!filter.statuses().isEmpty()) {
+            specs.add((root, cq, cb) -> root.get("status").in(filter.statuses()));
+        }
+        if (!filter.priorities().isEmpty()) {
+            specs.add((root, cq, cb) -> root.get("priority").in(filter.priorities()));
+        }
+        if (filter.departmentId() != null) {
+            specs.add((root, cq, cb) -> cb.equal(root.get("department").get("id"), filter.departmentId()));
+        }
+        if (filter.assigneeId() != null) {
+            specs.add((root, cq, cb) -> cb.equal(root.get("assignee").get("id"), filter.assigneeId()));
+        }
+        if (filter.createdById() != null) {
+            specs.add((root, cq, cb) -> cb.equal(root.get("createdBy").get("id"), filter.createdById()));
+        }
+        if (filter.createdFrom() != null) {
+            specs.add((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            specs.add((root, cq, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), filter.createdTo()));
+        }
+        return specs;
     }
 
 
@@ -119,10 +198,6 @@ public class TaskService {
         return task;
     }
 
-    public List<Task> listAll() {
-        return taskRepository.findAll();
-    }
-
     private void sendTaskAssignmentEvent(Task task) {
         TaskAssignmentEvent event = new TaskAssignmentEvent();
         event.setTaskId(task.getId());
@@ -145,7 +220,7 @@ public class TaskService {
         event.setDepartmentName(task.getDepartment() != null ? task.getDepartment().getName() : "General");
         event.setAssignedAt(task.getCreatedAt());
         
-        rabbitTemplate.convertAndSend(RabbitMQConfig.TASK_ASSIGNMENT_EXCHANGE,
+        eventOutbox.enqueue(RabbitMQConfig.TASK_ASSIGNMENT_EXCHANGE,
                 RabbitMQConfig.TASK_ASSIGNMENT_ROUTING_KEY, event);
     }
 }
@@ -0,0 +1,34 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.model.Title;
+import com.example.personnelservice.repository.PersonRepository;
+import com.example.personnelservice.repository.TitleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class TitleService {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleService.class);
+
+    private final TitleRepository titleRepository;
+    private final PersonRepository personRepository;
+
+    public TitleService(TitleRepository titleRepository, PersonRepository personRepository) {
+        this.titleRepository = titleRepository;
+        this.personRepository = personRepository;
+    }
+
+    /** Clears the title from everyone holding it in one statement, then removes it. */
+    public void deleteTitle(Long id) {
+        log.info("Deleting title {}", id);
+        Title title = titleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Title not found"));
+        int holders = personRepository.clearTitle(id);
+        titleRepository.delete(title);
+        log.info("Title deleted {} ({} people cleared)", id, holders);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.dto.TokenClaims;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent remote token validations into one /auth/validate/batch call.
+ * The first token of a batch opens a short window; everything arriving before it closes,
+ * or until the batch is full, goes out in a single request. Duplicate tokens share a result.
+ */
+@Component
+public class TokenValidationBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenValidationBatcher.class);
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "token-validation-batcher");
+        t.setDaemon(true);
+        return t;
+    });
+    private Map<String, CompletableFuture<Optional<TokenClaims>>> pending = new LinkedHashMap<>();
+
+    @Value("${auth-service.validation-batch.window-ms:5}")
+    private long windowMs;
+
+    @Value("${auth-service.validation-batch.max-size:100}")
+    private int maxSize;
+
+    public TokenValidationBatcher(WebClient authWebClient, CircuitBreaker authCircuitBreaker) {
+        this.webClient = authWebClient;
+        this.circuitBreaker = authCircuitBreaker;
+    }
+
+    public CompletableFuture<Optional<TokenClaims>> submit(String token) {
+        boolean flushNow = false;
+        CompletableFuture<Optional<TokenClaims>> future;
+        synchronized (this) {
+            future = pending.get(token);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(token, future);
+            if (pending.size() == 1) {
+                scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            } else if (pending.size() >= maxSize) {
+                flushNow = true;
+            }
+        }
+        if (flushNow) {
+            scheduler.execute(this::flush);
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<Optional<TokenClaims>>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        List<String> tokens = new ArrayList<>(batch.keySet());
+        log.debug("Validating {} tokens in one batch", tokens.size());
+        webClient.post()
+                .uri("/auth/validate/batch")
+                .bodyValue(Map.of("tokens", tokens))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<ValidationResult>>() {})
+                .defaultIfEmpty(List.of())
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .subscribe(results -> {
+                    for (int i = 0; i < tokens.size(); i++) {
+                        ValidationResult r = results != null && i < results.size() ? results.get(i) : null;
+                        Optional<TokenClaims> claims = r != null && r.valid()
+                                ? Optional.of(new TokenClaims(r.email(), r.role(), r.roles(), r.expiresAt()))
+                                : Optional.empty();
+                        batch.get(tokens.get(i)).complete(claims);
+                    }
+                }, error -> {
+                    log.warn("Batch token validation failed: {}", error.getMessage());
+                    batch.values().forEach(f -> f.complete(Optional.empty()));
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private record ValidationResult(boolean valid, String email, String role, List<String> roles, Instant expiresAt) {
+    }
+}
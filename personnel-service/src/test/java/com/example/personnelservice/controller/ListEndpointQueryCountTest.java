@@ -0,0 +1,88 @@
+package com.example.personnelservice.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every association is lazy and each list endpoint fetches what it renders up front. A list
+ * query without a fetch plan loads to-one associations one select per row, which raises these
+ * counts. Each case also checks one nested path the frontend reads, since a path the fetch plan
+ * does not load renders as null rather than costing a query.
+ * Runs against the seed data from {@code DataInitializer}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.personnelservice.controller.QueryCounter",
+        "eureka.client.enabled=false",
+        "auth-service.url=http://127.0.0.1:1",
+        "auth-service.client.max-retries=0"
+})
+@AutoConfigureMockMvc
+@WithMockUser(username = "michael.johnson@example.com", roles = "ADMIN")
+class ListEndpointQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void warmUp() throws Exception {
+        // The first request per endpoint may fill caches; only steady-state counts matter here.
+        mockMvc.perform(get("/api/departments/organization-structure"));
+    }
+
+    @Test
+    void peoplePageIsRowsPlusCount() throws Exception {
+        // A page smaller than the total needs the count query as well.
+        assertStatements(get("/api/people").param("size", "5"), "$.content.length()", 2,
+                "$.content[0].title.department.name");
+    }
+
+    @Test
+    void peopleCursorPageIsOneSelect() throws Exception {
+        assertStatements(get("/api/people").param("cursor", "").param("size", "20"), "$.content.length()", 1,
+                "$.content[0].title.department.name");
+    }
+
+    @Test
+    void tasksListIsOneSelect() throws Exception {
+        assertStatements(get("/api/tasks").param("size", "50"), "$.content.length()", 1,
+                "$.content[0].assignee.title.name");
+    }
+
+    @Test
+    void departmentsListIsOneSelect() throws Exception {
+        assertStatements(get("/api/departments"), "$.length()", 1, "$[0].name");
+    }
+
+    @Test
+    void titlesListIsOneSelect() throws Exception {
+        assertStatements(get("/api/titles"), "$.length()", 1, "$[0].department.name");
+    }
+
+    @Test
+    void meetingsListIsOneSelect() throws Exception {
+        assertStatements(get("/api/meetings"), "$.length()", 1, "$[0].organizer.department.name");
+    }
+
+    /** {@code fetched} is a nested path the fetch plan must load; unloaded associations render as null. */
+    private void assertStatements(MockHttpServletRequestBuilder request, String rows, int expected, String fetched) throws Exception {
+        QueryCounter.reset();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(rows, greaterThan(1)))
+                .andExpect(jsonPath(fetched).isNotEmpty());
+        assertThat(QueryCounter.count()).as("SQL statements for %s", request.buildRequest(null).getRequestURI())
+                .isEqualTo(expected);
+    }
+}
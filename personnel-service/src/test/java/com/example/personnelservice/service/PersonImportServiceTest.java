@@ -0,0 +1,66 @@
+package com.example.personnelservice.service;
+
+import com.example.personnelservice.repository.PersonRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A chunk the database rejects is written again row by row, so the report names only the row
+ * that broke it. An address longer than its column passes validation but fails the insert.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "auth-service.url=http://127.0.0.1:1",
+        "auth-service.client.max-retries=0",
+        "people.import.chunk-size=10"
+})
+class PersonImportServiceTest {
+
+    @Autowired
+    private PersonImportService personImportService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void failedChunkReportsOnlyTheOffendingRow() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            String address = i == 3 ? "x".repeat(300) : "Street " + i;
+            ndjson.append(objectMapper.writeValueAsString(java.util.Map.of(
+                    "firstName", "Chunk", "lastName", "Row" + i,
+                    "email", "chunk.row" + i + "@example.com", "address", address))).append('\n');
+        }
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+
+        personImportService.importPeople(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)),
+                PersonImportService.Format.NDJSON, report);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : report.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0).get("line").asInt()).isEqualTo(3);
+        assertThat(lines.get(0).get("email").asText()).isEqualTo("chunk.row3@example.com");
+        assertThat(lines.get(1).get("created").asInt()).isEqualTo(4);
+        assertThat(lines.get(1).get("failed").asInt()).isEqualTo(1);
+        assertThat(personRepository.findByEmail("chunk.row1@example.com")).isNotNull();
+        assertThat(personRepository.findByEmail("chunk.row5@example.com")).isNotNull();
+        assertThat(personRepository.findByEmail("chunk.row3@example.com")).isNull();
+    }
+}